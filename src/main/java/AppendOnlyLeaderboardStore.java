@@ -0,0 +1,368 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link LeaderboardStore} that appends each result to a log instead of rewriting
+ * the whole leaderboard after every game.
+ * <p>
+ * The store keeps two files side by side:
+ * </p>
+ * <ul>
+ *     <li>the <b>snapshot</b> (e.g. {@code leaderboard.txt}), holding every entry in
+ *         descending score order as of the last compaction, and</li>
+ *     <li>the <b>log</b> (e.g. {@code leaderboard.txt.log}), holding one appended line per
+ *         entry added since then.</li>
+ * </ul>
+ * <p>
+ * Adding an entry costs a single small append, however large the leaderboard is. Once
+ * the log holds a configurable number of entries, the leaderboard is compacted: the full
+ * sorted list is written to a temporary file, which atomically replaces the snapshot, and
+ * the log is deleted. On load, the snapshot is merged with the log tail.
+ * </p>
+ *
+ * <h2>File Format</h2>
+ * Both files use the leaderboard's {@code name,score@timestamp} line format, read by
+ * {@link LeaderboardTextParser}, so the time of each game survives a restart. Their
+ * first line may be a header of the form {@code # generation N}. Each compaction
+ * increments the snapshot generation, and a log only applies to the snapshot generation
+ * it was started against, so a log left behind by a crash between replacing the snapshot and deleting the log is
+ * recognised as already compacted and discarded. Files without a header (such as a
+ * leaderboard written by an earlier version) are treated as generation 0.
+ * If either file exists but cannot be read, its generation is unknown, so the store
+ * neither discards the log nor compacts until a later load reads both.
+ * <p>
+ * The snapshot may instead be kept in the {@link SnapshotFormat#BINARY binary format}
+ * of {@link BinaryLeaderboardFile}, which records its generation in its own header.
+ * The log is always text.
+ * </p>
+ */
+public class AppendOnlyLeaderboardStore implements LeaderboardStore {
+
+    /** The number of appended entries after which the store asks to be compacted. */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    private static final String HEADER = "# generation ";
+
+    /** The formats a snapshot can be written in. */
+    public enum SnapshotFormat {
+        /** One {@code name,score@timestamp} line per entry. */
+        TEXT,
+        /** A memory-mapped {@link BinaryLeaderboardFile}. */
+        BINARY
+    }
+
+    private final Path snapshot;
+    private final Path log;
+    private final Path temp;
+    private final int compactionThreshold;
+    private final SnapshotFormat format;
+
+    /** The generation of the current snapshot, which the log extends. */
+    private long generation;
+
+    /** The number of entries in the log. */
+    private int logEntries;
+
+    /** Whether the last load failed to read a file, so that a new snapshot could lose entries. */
+    private boolean readFailed;
+
+    /** Whether writes are forced to the storage device. */
+    private boolean syncWrites;
+
+    /**
+     * Creates a store for the given snapshot file with the default compaction threshold.
+     *
+     * @param file the snapshot file; the log is kept next to it
+     */
+    public AppendOnlyLeaderboardStore(File file) {
+        this(file, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Creates a store for the given snapshot file.
+     *
+     * @param file                the snapshot file; the log is kept next to it
+     * @param compactionThreshold the number of appended entries after which to compact
+     */
+    public AppendOnlyLeaderboardStore(File file, int compactionThreshold) {
+        this(file, compactionThreshold, SnapshotFormat.TEXT);
+    }
+
+    /**
+     * Creates a store for the given snapshot file, written in the given format.
+     *
+     * @param file                the snapshot file; the log is kept next to it
+     * @param compactionThreshold the number of appended entries after which to compact
+     * @param format              the format of the snapshot file
+     */
+    public AppendOnlyLeaderboardStore(File file, int compactionThreshold, SnapshotFormat format) {
+        this.snapshot = file.toPath();
+        this.log = Path.of(file.getPath() + ".log");
+        this.temp = Path.of(file.getPath() + ".tmp");
+        this.compactionThreshold = compactionThreshold;
+        this.format = format;
+    }
+
+    /**
+     * Loads the snapshot and every entry appended to the log since it was written.
+     *
+     * @return the recovered entries; log entries follow the snapshot entries
+     */
+    @Override
+    public List<LeaderboardEntry> load() {
+        return load(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Loads the best {@code limit} snapshot entries and every entry appended to the log
+     * since the snapshot was written. A binary snapshot is only read as far as needed.
+     *
+     * @param limit the number of snapshot entries needed
+     * @return the recovered entries; log entries follow the snapshot entries
+     */
+    @Override
+    public List<LeaderboardEntry> load(int limit) {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        readFailed = false;
+        try {
+            generation = Math.max(0, format == SnapshotFormat.BINARY
+                    ? readBinary(snapshot, entries, limit)
+                    : read(snapshot, entries));
+        } catch (IOException e) {
+            System.out.println("Error reading leaderboard file.");
+            readFailed = true;
+            generation = 0;
+        }
+
+        List<LeaderboardEntry> tail = new ArrayList<>();
+        long logGeneration;
+        try {
+            logGeneration = read(log, tail);
+        } catch (IOException e) {
+            System.out.println("Error reading leaderboard file.");
+            readFailed = true;
+            return entries;
+        }
+        if (logGeneration >= generation || readFailed) {
+            entries.addAll(tail);
+            logEntries = tail.size();
+        } else {
+            // Left over from a compaction that finished replacing the snapshot
+            deleteLog();
+        }
+        return entries;
+    }
+
+    /**
+     * Appends one entry to the log.
+     *
+     * @param entry the entry to persist
+     */
+    @Override
+    public void append(LeaderboardEntry entry) {
+        appendAll(List.of(entry));
+    }
+
+    /**
+     * Appends a batch of entries to the log with a single write, followed by a
+     * {@code force} if {@link #setSyncWrites(boolean) synchronous writes} are on.
+     *
+     * @param entries the entries to persist, in order
+     */
+    @Override
+    public void appendAll(List<LeaderboardEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        StringBuilder records = new StringBuilder();
+        if (!Files.exists(log)) {
+            records.append(HEADER).append(generation).append('\n');
+        }
+        for (LeaderboardEntry entry : entries) {
+            LeaderboardTextParser.format(records, entry);
+        }
+        try {
+            write(log, records.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            logEntries += entries.size();
+        } catch (IOException e) {
+            System.out.println("Error writing leaderboard file.");
+        }
+    }
+
+    /**
+     * Sets whether every write is forced to the storage device before it returns, so
+     * that appended entries and new snapshots survive a power failure, not just a crash.
+     * Off by default.
+     *
+     * @param syncWrites {@code true} to force each write
+     */
+    public void setSyncWrites(boolean syncWrites) {
+        this.syncWrites = syncWrites;
+    }
+
+    /**
+     * Returns whether the log has reached the compaction threshold. Always {@code false}
+     * if the last load could not read the snapshot or the log.
+     */
+    @Override
+    public boolean needsCompaction() {
+        return !readFailed && logEntries >= compactionThreshold;
+    }
+
+    /**
+     * Writes a new snapshot through a temporary file and atomic rename, then deletes the log.
+     * Does nothing if the last load could not read the snapshot or the log, since the
+     * entries given could then be missing some that are saved.
+     *
+     * @param entries every entry on the leaderboard, in display order
+     */
+    @Override
+    public void compact(List<LeaderboardEntry> entries) {
+        if (readFailed) {
+            System.out.println("Not compacting the leaderboard, since its files could not be read.");
+            return;
+        }
+        if (format == SnapshotFormat.BINARY) {
+            try {
+                BinaryLeaderboardFile.write(temp, generation + 1, entries);
+                if (syncWrites) {
+                    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                        channel.force(true);
+                    }
+                }
+                replace(temp, snapshot);
+                generation++;
+                deleteLog();
+            } catch (IOException e) {
+                System.out.println("Error writing leaderboard file.");
+            }
+            return;
+        }
+        StringBuilder contents = new StringBuilder();
+        contents.append(HEADER).append(generation + 1).append('\n');
+        for (LeaderboardEntry entry : entries) {
+            LeaderboardTextParser.format(contents, entry);
+        }
+        try {
+            write(temp, contents.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+            replace(temp, snapshot);
+            generation++;
+            deleteLog();
+        } catch (IOException e) {
+            System.out.println("Error writing leaderboard file.");
+        }
+    }
+
+    /**
+     * Returns the combined size of the snapshot and the log.
+     *
+     * @return the size in bytes
+     */
+    @Override
+    public long sizeInBytes() {
+        return sizeOf(snapshot) + sizeOf(log);
+    }
+
+    /** Returns the size of a file, or 0 if it does not exist. */
+    static long sizeOf(Path path) {
+        try {
+            return Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the number of entries appended since the last snapshot.
+     *
+     * @return the log length in entries
+     */
+    public int getLogEntries() {
+        return logEntries;
+    }
+
+    /**
+     * Writes bytes to a file with one channel write, forcing them to the device if
+     * synchronous writes are on.
+     */
+    private void write(Path path, byte[] bytes, StandardOpenOption mode) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (syncWrites) {
+                channel.force(true);
+            }
+        }
+    }
+
+    /**
+     * Atomically replaces {@code target} with {@code source}, falling back to a plain
+     * replace on file systems without atomic moves.
+     */
+    static void replace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void deleteLog() {
+        try {
+            Files.deleteIfExists(log);
+            logEntries = 0;
+        } catch (IOException e) {
+            System.out.println("Error writing leaderboard file.");
+        }
+    }
+
+    /**
+     * Reads the best {@code limit} entries of a binary snapshot into the given list.
+     *
+     * @return the snapshot's generation, or -1 if it does not exist
+     * @throws IOException if the snapshot exists but cannot be read
+     */
+    private static long readBinary(Path path, List<LeaderboardEntry> entries, int limit) throws IOException {
+        if (!Files.exists(path)) {
+            return -1;
+        }
+        BinaryLeaderboardFile file = BinaryLeaderboardFile.open(path);
+        try {
+            entries.addAll(file.readTop(limit));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return file.getGeneration();
+    }
+
+    /**
+     * Reads the entries of one text file into the given list, skipping malformed lines.
+     *
+     * @return the file's generation, 0 if it has no header, or -1 if it does not exist
+     * @throws IOException if the file exists but cannot be read
+     */
+    private static long read(Path path, List<LeaderboardEntry> entries) throws IOException {
+        if (!Files.exists(path)) {
+            return -1;
+        }
+        LeaderboardTextParser parsed = LeaderboardTextParser.parse(path, Runtime.getRuntime().availableProcessors());
+        entries.addAll(parsed.getEntries());
+        if (parsed.getMalformedLines() > 0) {
+            System.out.println("Skipped " + parsed.getMalformedLines() + " malformed line(s) in " + path + ".");
+        }
+        return parsed.getGeneration();
+    }
+}
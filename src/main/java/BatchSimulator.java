@@ -0,0 +1,325 @@
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Plays large numbers of single-deck games in lockstep, for bulk analytics.
+ * <p>
+ * Where {@link Simulator} drives one {@link GameState} at a time, this class keeps
+ * the state of a whole batch of games in parallel primitive arrays (lives, score
+ * and rounds played per game, plus the list of games still alive) and advances
+ * every live game in the batch by one round per pass. The cards of the batch are
+ * dealt up front into one card-major array, {@code ranks[position * BATCH_SIZE + game]},
+ * so all games share a single deck cursor and each round reads from two rows that
+ * fit in the L1 cache together.
+ * </p>
+ *
+ * <h2>Kernel</h2>
+ * The round loop has no branches that depend on the cards: guesses are judged with
+ * comparisons and masks, and games that run out of lives are dropped from the live
+ * list by writing every game back and advancing the write position only for those
+ * still alive. Games last about a dozen rounds on average but the longest in a
+ * batch lasts far longer, so stepping only live games does much less work than
+ * masking dead ones out of every round.
+ *
+ * <h2>Vector API</h2>
+ * Rounds can instead be judged with the incubating Vector API, a whole vector of
+ * games per instruction, with finished games masked out rather than dropped. The
+ * vector kernel needs warming up and only overtakes the scalar loop on runs of many
+ * millions of games, so it is off unless asked for with {@code setVectorized(true)}.
+ * It is only compiled by the {@code vector} Maven profile, so the default build does
+ * not touch the incubator module, and only runs when the JVM is started with
+ * {@code --add-modules jdk.incubator.vector} on a CPU with vectors of at least 8
+ * ints; otherwise the scalar loop is used. Both give identical results.
+ *
+ * <h2>Strategies</h2>
+ * Only strategies whose guess depends on nothing but the current card's rank can be
+ * batched; they are given as a table from rank to guess. {@link BotStrategy#COUNTING}
+ * depends on the cards already drawn and is not supported.
+ *
+ * <h2>Reproducibility</h2>
+ * Games are split into chunks and shuffled exactly as {@link Simulator} does, so for
+ * the same strategy, lives and seed both produce identical results.
+ */
+public class BatchSimulator {
+
+    /** The number of games advanced together. */
+    public static final int BATCH_SIZE = 256;
+
+    /** The rank of each card id, as a lookup instead of a division. */
+    private static final byte[] RANK_OF = new byte[Card.DECK_SIZE];
+
+    static {
+        for (int id = 0; id < Card.DECK_SIZE; id++) {
+            RANK_OF[id] = (byte) Card.rankOf(id);
+        }
+    }
+
+    /** The Vector API kernel, or {@code null} if it is not compiled in, not enabled or unsuited to this CPU. */
+    private static final Kernel VECTOR_KERNEL = loadVectorKernel();
+
+    /** 1 where the strategy guesses higher on a rank, 0 where it guesses lower. */
+    private final int[] guessesHigher = new int[Card.RANKS_PER_SUIT];
+
+    /** The same table with bit {@code r} set for each rank {@code r} guessed higher. */
+    private final int higherBits;
+    private final int lives;
+    private final long seed;
+    private boolean vectorized;
+
+    /**
+     * A round loop that plays a batch of dealt games to the end, as {@link BatchSimulator}
+     * does. Implemented outside this class so it can be left out of the build.
+     */
+    interface Kernel {
+
+        /**
+         * Returns whether the kernel can run on this CPU with batches of the given size.
+         *
+         * @param batchSize the number of games in a full batch
+         * @return {@code true} if the kernel can be used
+         */
+        boolean isSupported(int batchSize);
+
+        /**
+         * Returns the number of games judged per instruction.
+         *
+         * @return the lane count
+         */
+        int lanes();
+
+        /**
+         * Plays a batch of dealt games to the end.
+         *
+         * @param batch      the number of games in the batch
+         * @param batchSize  the length of each row of {@code ranks}
+         * @param ranks      the dealt ranks, {@code ranks[position * batchSize + game]}
+         * @param livesLeft  receives each game's remaining lives
+         * @param scores     receives each game's final score
+         * @param rounds     receives the number of rounds each game lasted
+         * @param lives      the number of lives each game starts with
+         * @param higherBits bit {@code r} set where the strategy guesses higher on rank {@code r}
+         */
+        void playBatch(int batch, int batchSize, byte[] ranks, int[] livesLeft, int[] scores, int[] rounds,
+                int lives, int higherBits);
+    }
+
+    /**
+     * Creates a batch simulator.
+     *
+     * @param guessByRank the guess to make on each rank, indexed by {@link Rank#ordinal()}
+     * @param lives       the number of lives each player starts with
+     * @param seed        the seed that determines every game's cards
+     * @throws IllegalArgumentException if the table does not cover every rank or
+     *                                  {@code lives} is less than 1
+     */
+    public BatchSimulator(Guess[] guessByRank, int lives, long seed) {
+        if (guessByRank.length != Card.RANKS_PER_SUIT || lives < 1) {
+            throw new IllegalArgumentException("Need a guess for every rank and at least 1 life.");
+        }
+        int bits = 0;
+        for (int rank = 0; rank < guessByRank.length; rank++) {
+            guessesHigher[rank] = guessByRank[rank] == Guess.HIGHER ? 1 : 0;
+            bits |= guessesHigher[rank] << rank;
+        }
+        this.higherBits = bits;
+        this.lives = lives;
+        this.seed = seed;
+    }
+
+    /**
+     * Returns whether the Vector API kernel can be used in this JVM.
+     *
+     * @return {@code true} if {@code jdk.incubator.vector} is present and the CPU's
+     *         vectors hold at least 8 ints
+     */
+    public static boolean isVectorAvailable() {
+        return VECTOR_KERNEL != null;
+    }
+
+    /**
+     * Returns the Vector API kernel.
+     *
+     * @return the kernel, or {@code null} if it is not {@linkplain #isVectorAvailable() available}
+     */
+    static Kernel vectorKernel() {
+        return VECTOR_KERNEL;
+    }
+
+    private static Kernel loadVectorKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            // Looked up by name, since the default build leaves the class out
+            Kernel kernel = (Kernel) Class.forName("VectorRoundKernel").getDeclaredConstructor().newInstance();
+            return kernel.isSupported(BATCH_SIZE) ? kernel : null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Chooses between the Vector API kernel and the scalar loop. The scalar loop is used
+     * by default; asking for the Vector API where it is not
+     * {@linkplain #isVectorAvailable() available} has no effect.
+     *
+     * @param vectorized {@code true} to use the Vector API where available
+     */
+    public void setVectorized(boolean vectorized) {
+        this.vectorized = vectorized && VECTOR_KERNEL != null;
+    }
+
+    /**
+     * Returns whether games are judged with the Vector API.
+     *
+     * @return {@code true} if the Vector API kernel is in use
+     */
+    public boolean isVectorized() {
+        return vectorized;
+    }
+
+    /**
+     * Returns the guess table of a built-in strategy.
+     *
+     * @param strategy a strategy that looks only at the current card's rank
+     * @return the guess for each rank
+     * @throws IllegalArgumentException if the strategy depends on the cards already drawn
+     */
+    public static Guess[] guessTable(BotStrategy strategy) {
+        Guess[] table = new Guess[Card.RANKS_PER_SUIT];
+        for (int rank = 0; rank < table.length; rank++) {
+            table[rank] = switch (strategy) {
+                case ALWAYS_HIGHER -> Guess.HIGHER;
+                case ALWAYS_LOWER -> Guess.LOWER;
+                case MIDPOINT -> rank < Rank.SEVEN.ordinal() ? Guess.HIGHER : Guess.LOWER;
+                case COUNTING -> throw new IllegalArgumentException(
+                        "The counting strategy depends on the cards already drawn and cannot be batched.");
+            };
+        }
+        return table;
+    }
+
+    /**
+     * Plays the given number of games across all available cores.
+     *
+     * @param games the number of games to play
+     * @return the combined results, including the elapsed time
+     */
+    public SimulationResult run(long games) {
+        int chunks = (int) ((games + Simulator.CHUNK_SIZE - 1) / Simulator.CHUNK_SIZE);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int i = 0; i < chunks; i++) {
+            randoms[i] = root.split();
+        }
+
+        long start = System.nanoTime();
+        SimulationResult result = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(i -> runChunk((int) Math.min(Simulator.CHUNK_SIZE, games - (long) i * Simulator.CHUNK_SIZE),
+                        randoms[i]))
+                .reduce(SimulationResult::merge)
+                .orElseGet(() -> new SimulationResult(Card.DECK_SIZE - 1));
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Plays one chunk of games in batches on the calling thread, shuffling one card order
+     * per game in turn as a reused {@link Deck} would.
+     */
+    private SimulationResult runChunk(int games, SplittableRandom random) {
+        SimulationResult result = new SimulationResult(Card.DECK_SIZE - 1);
+        byte[] order = new byte[Card.DECK_SIZE];
+        for (int id = 0; id < order.length; id++) {
+            order[id] = (byte) id;
+        }
+        byte[] ranks = new byte[Card.DECK_SIZE * BATCH_SIZE];
+        int[] livesLeft = new int[BATCH_SIZE];
+        int[] scores = new int[BATCH_SIZE];
+        int[] rounds = new int[BATCH_SIZE];
+        int[] live = new int[BATCH_SIZE];
+
+        for (int first = 0; first < games; first += BATCH_SIZE) {
+            int batch = Math.min(BATCH_SIZE, games - first);
+            for (int game = 0; game < batch; game++) {
+                Deck.shuffle(order, order.length, random);
+                for (int position = 0; position < order.length; position++) {
+                    ranks[position * BATCH_SIZE + game] = RANK_OF[order[position]];
+                }
+            }
+            if (vectorized) {
+                VECTOR_KERNEL.playBatch(batch, BATCH_SIZE, ranks, livesLeft, scores, rounds, lives, higherBits);
+            } else {
+                playBatch(batch, ranks, livesLeft, scores, rounds, live);
+            }
+            for (int game = 0; game < batch; game++) {
+                result.record(scores[game], rounds[game]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Plays a batch of dealt games to the end, leaving each game's final score and
+     * number of rounds in {@code scores} and {@code rounds}. {@code live} is scratch
+     * space for the indexes of the games still being played.
+     */
+    private void playBatch(int batch, byte[] ranks, int[] livesLeft, int[] scores, int[] rounds, int[] live) {
+        for (int game = 0; game < batch; game++) {
+            livesLeft[game] = lives;
+            scores[game] = 0;
+            rounds[game] = 0;
+            live[game] = game;
+        }
+        int[] higher = guessesHigher;
+        int playing = batch;
+        for (int round = 0; round < Card.DECK_SIZE - 1 && playing > 0; round++) {
+            int current = round * BATCH_SIZE;
+            int next = current + BATCH_SIZE;
+            int kept = 0;
+            for (int i = 0; i < playing; i++) {
+                int game = live[i];
+                int currentRank = ranks[current + game];
+                int nextRank = ranks[next + game];
+                int up = nextRank > currentRank ? 1 : 0;
+                int down = nextRank < currentRank ? 1 : 0;
+                int guessUp = higher[currentRank];
+                int correct = (guessUp & up) | ((guessUp ^ 1) & down);
+                // Equal ranks are neither correct nor wrong
+                int wrong = (up | down) ^ correct;
+                scores[game] += correct;
+                rounds[game]++;
+                int left = livesLeft[game] - wrong;
+                livesLeft[game] = left;
+                live[kept] = game;
+                kept += left > 0 ? 1 : 0;
+            }
+            playing = kept;
+        }
+    }
+
+    /**
+     * Runs a batch simulation from the command line and prints the report.
+     *
+     * @param args {@code games [strategy] [lives] [seed] [vector]}
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: BatchSimulator games [strategy] [lives] [seed] [vector]");
+            return;
+        }
+        long games = Long.parseLong(args[0]);
+        BotStrategy strategy = args.length > 1 ? BotStrategy.valueOf(args[1].toUpperCase()) : BotStrategy.MIDPOINT;
+        int lives = args.length > 2 ? Integer.parseInt(args[2]) : GameState.DEFAULT_LIVES;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        BatchSimulator simulator = new BatchSimulator(guessTable(strategy), lives, seed);
+        simulator.setVectorized(args.length > 4 && args[4].equalsIgnoreCase("vector"));
+
+        System.out.println("Strategy: " + strategy + ", lives: " + lives + ", seed: " + seed + " (batched, "
+                + (simulator.isVectorized() ? VECTOR_KERNEL.lanes() + " int lanes" : "scalar") + ")");
+        SimulationResult result = simulator.run(games);
+        System.out.print(result.format());
+    }
+}
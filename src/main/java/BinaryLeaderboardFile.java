@@ -0,0 +1,260 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A leaderboard snapshot in a compact, versioned binary format, read through a
+ * memory-mapped buffer.
+ * <p>
+ * Reading a text leaderboard means scanning and parsing every line before the first
+ * entry can be shown. A binary snapshot is mapped instead, so opening one only reads
+ * its header, and reading the top {@code n} entries only touches the pages holding
+ * those entries' scores, offsets and names. Each name's offsets are checked against
+ * the name pool as the name is read.
+ * </p>
+ *
+ * <h2>File Format</h2>
+ * All numbers are big-endian. The file holds five sections back to back:
+ * <ol>
+ *     <li>a 24-byte <b>header</b>: the magic number {@code HLLB}, the format version,
+ *         the snapshot generation (a {@code long}), the entry count and the size of the
+ *         name pool in bytes;</li>
+ *     <li>the <b>scores</b>: one {@code int} per entry, in display order;</li>
+ *     <li>the <b>timestamps</b>: one {@code long} per entry, the time the game was
+ *         played in epoch milliseconds, or 0 if unknown;</li>
+ *     <li>the <b>offset table</b>: {@code count + 1} {@code int}s giving where each
+ *         entry's name starts in the name pool, the last being the end of the pool;</li>
+ *     <li>the <b>name pool</b>: every name encoded as UTF-8, back to back.</li>
+ * </ol>
+ * <p>
+ * Version 1 files, which have no timestamps section, can still be read; their
+ * entries have no timestamp.
+ * </p>
+ * <p>
+ * Text leaderboards can be converted either way with {@link #main(String[])}.
+ * </p>
+ */
+public final class BinaryLeaderboardFile {
+
+    /** The magic number at the start of every binary leaderboard file ({@code "HLLB"}). */
+    public static final int MAGIC = 0x484C4C42;
+
+    /** The format version written by this class. */
+    public static final int VERSION = 2;
+
+    /** The size of the header in bytes. */
+    static final int HEADER_BYTES = 24;
+
+    private final ByteBuffer buffer;
+    private final long generation;
+    private final int count;
+    private final int timestampsStart;
+    private final int offsetsStart;
+    private final int poolStart;
+    private final int poolBytes;
+
+    private BinaryLeaderboardFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary leaderboard file.");
+        }
+        int version = buffer.getInt(4);
+        if (version != 1 && version != VERSION) {
+            throw new IOException("Unsupported leaderboard file version " + version + ".");
+        }
+        this.generation = buffer.getLong(8);
+        this.count = buffer.getInt(16);
+        this.poolBytes = buffer.getInt(20);
+        int timestampBytes = version == 1 ? 0 : 8;
+        if (count < 0 || poolBytes < 0
+                || HEADER_BYTES + (8L + timestampBytes) * count + 4 + poolBytes > buffer.limit()) {
+            throw new IOException("Truncated leaderboard file.");
+        }
+        this.timestampsStart = version == 1 ? -1 : HEADER_BYTES + 4 * count;
+        this.offsetsStart = HEADER_BYTES + (4 + timestampBytes) * count;
+        this.poolStart = offsetsStart + 4 * (count + 1);
+    }
+
+    /**
+     * Maps a binary leaderboard file for reading. Only the header is read up front.
+     *
+     * @param path the file to open
+     * @return the opened file
+     * @throws IOException if the file cannot be read or is not a valid leaderboard file
+     */
+    public static BinaryLeaderboardFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new BinaryLeaderboardFile(mapped);
+        }
+    }
+
+    /**
+     * Writes the given entries to a binary leaderboard file, replacing any existing file.
+     *
+     * @param path       the file to write
+     * @param generation the snapshot generation to record in the header
+     * @param entries    the entries, in display order
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, long generation, List<LeaderboardEntry> entries) throws IOException {
+        int count = entries.size();
+        byte[][] names = new byte[count][];
+        int poolBytes = 0;
+        for (int i = 0; i < count; i++) {
+            names[i] = entries.get(i).getName().getBytes(StandardCharsets.UTF_8);
+            poolBytes += names[i].length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + 12 * count + 4 * (count + 1) + poolBytes);
+        out.putInt(MAGIC).putInt(VERSION).putLong(generation).putInt(count).putInt(poolBytes);
+        for (LeaderboardEntry entry : entries) {
+            out.putInt(entry.getScore());
+        }
+        for (LeaderboardEntry entry : entries) {
+            out.putLong(entry.getTimestamp());
+        }
+        int offset = 0;
+        for (byte[] name : names) {
+            out.putInt(offset);
+            offset += name.length;
+        }
+        out.putInt(offset);
+        for (byte[] name : names) {
+            out.put(name);
+        }
+        out.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    /**
+     * Returns the snapshot generation recorded in the header.
+     *
+     * @return the generation
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the number of entries in the file.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the score of the entry at the given position.
+     *
+     * @param index the position in display order
+     * @return the score
+     */
+    public int getScore(int index) {
+        return buffer.getInt(HEADER_BYTES + 4 * checkIndex(index));
+    }
+
+    /**
+     * Returns when the entry at the given position was played.
+     *
+     * @param index the position in display order
+     * @return the time in epoch milliseconds, or 0 if unknown
+     */
+    public long getTimestamp(int index) {
+        checkIndex(index);
+        return timestampsStart < 0 ? 0 : buffer.getLong(timestampsStart + 8 * index);
+    }
+
+    /**
+     * Decodes the name of the entry at the given position.
+     *
+     * @param index the position in display order
+     * @return the player's name
+     * @throws UncheckedIOException if the name's offsets do not lie in order within the name pool
+     */
+    public String getName(int index) {
+        int at = offsetsStart + 4 * checkIndex(index);
+        int start = buffer.getInt(at);
+        int end = buffer.getInt(at + 4);
+        if (start < 0 || start > end || end > poolBytes || index == 0 && start != 0) {
+            throw new UncheckedIOException(new IOException("Corrupt name offset at entry " + index + "."));
+        }
+        byte[] name = new byte[end - start];
+        buffer.get(poolStart + start, name, 0, name.length);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the first {@code n} entries, or every entry if there are fewer.
+     *
+     * @param n the number of entries to read
+     * @return the entries, in display order
+     * @throws UncheckedIOException if a name's offsets are corrupt
+     */
+    public List<LeaderboardEntry> readTop(int n) {
+        int limit = Math.min(n, count);
+        List<LeaderboardEntry> entries = new ArrayList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            entries.add(new LeaderboardEntry(getName(i), getScore(i), getTimestamp(i)));
+        }
+        return entries;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("No entry at position " + index + ".");
+        }
+        return index;
+    }
+
+    /**
+     * Converts a leaderboard between the text and binary formats, including any
+     * entries still in the source's append log.
+     * <p>
+     * Usage: {@code to-binary <text file> <binary file>} or
+     * {@code to-text <binary file> <text file>}.
+     * </p>
+     *
+     * @param args the direction, source file and target file
+     */
+    public static void main(String[] args) {
+        if (args.length != 3 || !(args[0].equals("to-binary") || args[0].equals("to-text"))) {
+            System.out.println("Usage: BinaryLeaderboardFile (to-binary | to-text) source target");
+            return;
+        }
+        boolean toBinary = args[0].equals("to-binary");
+        AppendOnlyLeaderboardStore.SnapshotFormat from = toBinary
+                ? AppendOnlyLeaderboardStore.SnapshotFormat.TEXT
+                : AppendOnlyLeaderboardStore.SnapshotFormat.BINARY;
+        AppendOnlyLeaderboardStore.SnapshotFormat to = toBinary
+                ? AppendOnlyLeaderboardStore.SnapshotFormat.BINARY
+                : AppendOnlyLeaderboardStore.SnapshotFormat.TEXT;
+
+        List<LeaderboardEntry> entries = new AppendOnlyLeaderboardStore(new File(args[1]),
+                AppendOnlyLeaderboardStore.DEFAULT_COMPACTION_THRESHOLD, from).load();
+        entries.sort(Comparator.comparingInt(LeaderboardEntry::getScore).reversed());
+
+        AppendOnlyLeaderboardStore target = new AppendOnlyLeaderboardStore(new File(args[2]),
+                AppendOnlyLeaderboardStore.DEFAULT_COMPACTION_THRESHOLD, to);
+        target.load();
+        target.compact(entries);
+        System.out.println("Migrated " + entries.size() + " entries to " + args[2] + ".");
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Simple built-in computer players for simulations and testing.
+ *
+ * <ul>
+ *     <li>{@link #ALWAYS_HIGHER}: always guesses higher.</li>
+ *     <li>{@link #ALWAYS_LOWER}: always guesses lower.</li>
+ *     <li>{@link #MIDPOINT}: guesses higher below a seven and lower above it, which is
+ *         the best guess without remembering which cards have been drawn.</li>
+ *     <li>{@link #COUNTING}: guesses whichever direction has more undrawn cards left,
+ *         using the live odds from {@link GameState}.</li>
+ * </ul>
+ */
+public enum BotStrategy implements GuessStrategy {
+
+    ALWAYS_HIGHER {
+        @Override
+        public Guess guess(GameState state) {
+            return Guess.HIGHER;
+        }
+    },
+
+    ALWAYS_LOWER {
+        @Override
+        public Guess guess(GameState state) {
+            return Guess.LOWER;
+        }
+    },
+
+    MIDPOINT {
+        @Override
+        public Guess guess(GameState state) {
+            return Card.rankOf(state.getCurrentCardId()) < Rank.SEVEN.ordinal() ? Guess.HIGHER : Guess.LOWER;
+        }
+    },
+
+    COUNTING {
+        @Override
+        public Guess guess(GameState state) {
+            return state.getHigherProbability() >= state.getLowerProbability() ? Guess.HIGHER : Guess.LOWER;
+        }
+    }
+}
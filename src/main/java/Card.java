@@ -1,16 +1,45 @@
 /**
  * Represents a single playing card in a standard deck.
  * A card consists of a {@link Rank} and a {@link Suit}.
+ * <p>
+ * Every card also has a compact primitive id between 0 and 51, derived from the
+ * ordinals of its suit and rank ({@code suit * 13 + rank}). The hot paths of the
+ * game work on these ids, and the 52 canonical {@code Card} instances returned by
+ * {@link #of(int)} are shared flyweights for code that still wants objects.
+ * </p>
  *
  * This class is immutable: once created, the rank and suit cannot change.
  */
 public class Card {
 
+    /** The number of ranks in a suit. */
+    public static final int RANKS_PER_SUIT = 13;
+
+    /** The number of distinct cards, and therefore ids, in a standard deck. */
+    public static final int DECK_SIZE = 52;
+
+    private static final Rank[] RANKS = Rank.values();
+    private static final Suit[] SUITS = Suit.values();
+
+    /** The canonical card for every id, indexed by {@link #getId()}. */
+    private static final Card[] CARDS = new Card[DECK_SIZE];
+
+    static {
+        for (int id = 0; id < DECK_SIZE; id++) {
+            CARDS[id] = new Card(RANKS[rankOf(id)], SUITS[suitOf(id)]);
+        }
+    }
+
     private final Rank rank;
     private final Suit suit;
+    private final int id;
+    private final String name;
 
     /**
      * Constructs a new Card with the given rank and suit.
+     * <p>
+     * Prefer {@link #of(Rank, Suit)}, which returns the shared canonical instance.
+     * </p>
      *
      * @param rank the rank of the card (e.g., ACE, KING, TEN)
      * @param suit the suit of the card (e.g., HEARTS, SPADES)
@@ -18,6 +47,61 @@ public class Card {
     public Card(Rank rank, Suit suit) {
         this.rank = rank;
         this.suit = suit;
+        this.id = idOf(rank, suit);
+        this.name = rank.toString() + " of " + suit.toString();
+    }
+
+    /**
+     * Returns the canonical card for the given id.
+     *
+     * @param id a card id between 0 and 51
+     * @return the shared {@code Card} instance for that id
+     * @throws ArrayIndexOutOfBoundsException if the id is out of range
+     */
+    public static Card of(int id) {
+        return CARDS[id];
+    }
+
+    /**
+     * Returns the canonical card for the given rank and suit.
+     *
+     * @param rank the rank of the card
+     * @param suit the suit of the card
+     * @return the shared {@code Card} instance for that rank and suit
+     */
+    public static Card of(Rank rank, Suit suit) {
+        return CARDS[idOf(rank, suit)];
+    }
+
+    /**
+     * Returns the compact id of the card with the given rank and suit.
+     *
+     * @param rank the rank of the card
+     * @param suit the suit of the card
+     * @return the card id, between 0 and 51
+     */
+    public static int idOf(Rank rank, Suit suit) {
+        return suit.ordinal() * RANKS_PER_SUIT + rank.ordinal();
+    }
+
+    /**
+     * Returns the rank ordinal encoded in a card id.
+     *
+     * @param id a card id between 0 and 51
+     * @return the {@link Rank} ordinal, between 0 (Ace) and 12 (King)
+     */
+    public static int rankOf(int id) {
+        return id % RANKS_PER_SUIT;
+    }
+
+    /**
+     * Returns the suit ordinal encoded in a card id.
+     *
+     * @param id a card id between 0 and 51
+     * @return the {@link Suit} ordinal, between 0 and 3
+     */
+    public static int suitOf(int id) {
+        return id / RANKS_PER_SUIT;
     }
 
     /**
@@ -38,14 +122,26 @@ public class Card {
         return suit;
     }
 
+    /**
+     * Returns the compact id of this card.
+     *
+     * @return the card id, between 0 and 51
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      * Returns a human-readable representation of the card.
      * Example: "Ace of Hearts" or "10 of Clubs".
+     * <p>
+     * The string is built once on construction, so repeated calls do not allocate.
+     * </p>
      *
      * @return a string representation of the card
      */
     @Override
     public String toString() {
-        return rank.toString() + " of " + suit.toString();
+        return name;
     }
 }
@@ -0,0 +1,52 @@
+/**
+ * A source of playing cards that the game can draw from.
+ * <p>
+ * Both a single {@link Deck} and a multi-deck {@link Shoe} satisfy this contract,
+ * so the {@link GameEngine} can be played with either.
+ * </p>
+ */
+public interface CardSource {
+
+    /**
+     * Draws the next card.
+     *
+     * @return the drawn {@link Card}
+     * @throws IndexOutOfBoundsException if no cards remain
+     */
+    default Card drawCard() {
+        return Card.of(drawCardId());
+    }
+
+    /**
+     * Draws the next card and returns its id (see {@link Card#getId()}).
+     *
+     * @return the id of the drawn card
+     * @throws IndexOutOfBoundsException if no cards remain
+     */
+    int drawCardId();
+
+    /**
+     * Checks whether the source has no remaining cards.
+     *
+     * @return {@code true} if no more cards can be drawn, otherwise {@code false}
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the number of cards that can currently be drawn.
+     *
+     * @return the number of remaining cards
+     */
+    int getSize();
+
+    /**
+     * Returns the running count of undrawn cards of each rank.
+     * <p>
+     * The returned counts are updated as cards are drawn and must not be modified
+     * by the caller.
+     * </p>
+     *
+     * @return the live rank counts of this source
+     */
+    RankCounts getRankCounts();
+}
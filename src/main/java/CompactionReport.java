@@ -0,0 +1,68 @@
+/**
+ * The outcome of compacting a leaderboard under a {@link RetentionPolicy}.
+ */
+public class CompactionReport {
+
+    private final int entriesBefore;
+    private final int entriesAfter;
+    private final long bytesBefore;
+    private final long bytesAfter;
+
+    /**
+     * Creates a report.
+     *
+     * @param entriesBefore the number of entries before compaction
+     * @param entriesAfter  the number of entries kept
+     * @param bytesBefore   the size of the stored files before compaction, or -1 if unknown
+     * @param bytesAfter    the size of the stored files after compaction, or -1 if unknown
+     */
+    public CompactionReport(int entriesBefore, int entriesAfter, long bytesBefore, long bytesAfter) {
+        this.entriesBefore = entriesBefore;
+        this.entriesAfter = entriesAfter;
+        this.bytesBefore = bytesBefore;
+        this.bytesAfter = bytesAfter;
+    }
+
+    /**
+     * Returns the number of entries before compaction.
+     *
+     * @return the entry count
+     */
+    public int getEntriesBefore() {
+        return entriesBefore;
+    }
+
+    /**
+     * Returns the number of entries kept.
+     *
+     * @return the entry count
+     */
+    public int getEntriesAfter() {
+        return entriesAfter;
+    }
+
+    /**
+     * Returns the number of entries removed.
+     *
+     * @return the removed entry count
+     */
+    public int getReclaimedEntries() {
+        return entriesBefore - entriesAfter;
+    }
+
+    /**
+     * Returns how much smaller the stored files became.
+     *
+     * @return the bytes reclaimed, or -1 if the store cannot report its size
+     */
+    public long getReclaimedBytes() {
+        return bytesBefore < 0 || bytesAfter < 0 ? -1 : bytesBefore - bytesAfter;
+    }
+
+    @Override
+    public String toString() {
+        long reclaimed = getReclaimedBytes();
+        return "Compacted leaderboard: removed " + getReclaimedEntries() + " of " + entriesBefore + " entries"
+                + (reclaimed < 0 ? "." : ", reclaimed " + reclaimed + " bytes.");
+    }
+}
@@ -0,0 +1,50 @@
+import java.io.PrintStream;
+import java.util.Scanner;
+
+/**
+ * A {@link GuessStrategy} that asks a human player for each guess.
+ * <p>
+ * Accepts both full words and abbreviations (e.g., "h", "H", "higher"), and keeps
+ * prompting until valid input is received.
+ * </p>
+ */
+public class ConsoleGuessStrategy implements GuessStrategy {
+
+    private final Scanner scanner;
+    private final PrintStream out;
+
+    /**
+     * Creates a strategy that prompts on the given output and reads from the given input.
+     *
+     * @param scanner the source of the player's answers
+     * @param out     where prompts are written
+     */
+    public ConsoleGuessStrategy(Scanner scanner, PrintStream out) {
+        this.scanner = scanner;
+        this.out = out;
+    }
+
+    /**
+     * Prompts the user for a guess of "higher" or "lower".
+     *
+     * @param state the current game state (not used)
+     * @return the player's guess
+     */
+    @Override
+    public Guess guess(GameState state) {
+        while (true) {
+            out.println("Higher or Lower? (H/L)");
+            String input = scanner.nextLine().trim().toLowerCase();
+
+            if (input.startsWith("h")) {
+                return Guess.HIGHER;
+            }
+
+            if (input.startsWith("l")) {
+                return Guess.LOWER;
+            }
+
+            out.println("Invalid input. Please type Higher or Lower.");
+        }
+    }
+}
@@ -1,41 +1,104 @@
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a standard deck of 52 playing cards.
  * <p>
  * A {@code Deck} contains one card of each combination of {@link Rank} and {@link Suit}.
  * When constructed, the deck is automatically shuffled.
- * Cards are drawn from the "top" of the deck (index 0), and removed as they are drawn.
+ * Cards are stored as compact ids (see {@link Card#getId()}) in a {@code byte[]},
+ * and are drawn from the "top" of the deck by advancing a cursor, so drawing a card
+ * is O(1) and never shifts or allocates anything.
+ * </p>
+ * <p>
+ * The shuffle uses a {@link RandomGenerator}. The default constructor uses the
+ * calling thread's {@link ThreadLocalRandom}, so decks created on different threads
+ * never contend; passing a seeded generator (or using {@link #withSeed(long)})
+ * makes the card order exactly reproducible, e.g. to replay a disputed game.
  * </p>
  */
-public class Deck {
+public class Deck implements CardSource {
+
+    /** Card ids in deck order; the undrawn cards are those from {@link #top} onwards. */
+    private final byte[] cards;
 
-    /** Internal list of cards representing the deck. */
-    private final ArrayList<Card> cards;
+    /** Index of the next card to be drawn. */
+    private int top;
+
+    /** Running count of the undrawn cards of each rank. */
+    private final RankCounts rankCounts = new RankCounts(Card.DECK_SIZE / Card.RANKS_PER_SUIT);
 
     /**
      * Constructs a new shuffled deck containing all 52 unique cards
-     * from the standard suits and ranks.
+     * from the standard suits and ranks, shuffled with the current thread's
+     * {@link ThreadLocalRandom}.
      */
     public Deck() {
-        cards = new ArrayList<>();
-        for (Suit suit : Suit.values()) {
-            for (Rank rank : Rank.values()) {
-                cards.add(new Card(rank, suit));
-            }
+        this(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Constructs a new deck containing all 52 unique cards, shuffled with the
+     * given random number generator.
+     * <p>
+     * Two decks built from generators in the same state have the same card order.
+     * </p>
+     *
+     * @param random the generator used to shuffle the deck
+     */
+    public Deck(RandomGenerator random) {
+        cards = new byte[Card.DECK_SIZE];
+        for (int id = 0; id < cards.length; id++) {
+            cards[id] = (byte) id;
         }
-        shuffle();
+        shuffle(cards, cards.length, random);
     }
 
     /**
-     * Randomly shuffles the deck using {@link Collections#shuffle(java.util.List)}.
+     * Returns every card to the deck and shuffles it again with the given generator.
      * <p>
-     * This method is private because shuffling should only occur on deck creation.
+     * This lets a long-running simulation reuse one deck per worker instead of
+     * allocating a new deck for every game.
      * </p>
+     *
+     * @param random the generator used to shuffle the deck
      */
-    private void shuffle() {
-        Collections.shuffle(cards);
+    public void reset(RandomGenerator random) {
+        top = 0;
+        rankCounts.fill(Card.DECK_SIZE / Card.RANKS_PER_SUIT);
+        shuffle(cards, cards.length, random);
+    }
+
+    /**
+     * Creates a deck whose order is fully determined by the given seed.
+     *
+     * @param seed the seed for the {@link SplittableRandom} used to shuffle
+     * @return a new shuffled deck
+     */
+    public static Deck withSeed(long seed) {
+        return new Deck(new SplittableRandom(seed));
+    }
+
+    /**
+     * Shuffles the first {@code length} card ids of an array in place with a
+     * Fisher–Yates shuffle.
+     * <p>
+     * Decks only shuffle on creation; the method is shared with other card sources
+     * so that they produce the same orders from the same generator state.
+     * </p>
+     *
+     * @param cards  the card ids to shuffle
+     * @param length the number of leading ids to shuffle
+     * @param random the generator supplying the swaps
+     */
+    static void shuffle(byte[] cards, int length, RandomGenerator random) {
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
     }
 
     /**
@@ -45,8 +108,26 @@ public class Deck {
      * @return the next {@link Card} in the deck
      * @throws IndexOutOfBoundsException if the deck is empty
      */
+    @Override
     public Card drawCard() {
-        return cards.remove(0);
+        return Card.of(drawCardId());
+    }
+
+    /**
+     * Draws the next card from the top of the deck and returns its id.
+     * This is the allocation-free equivalent of {@link #drawCard()}.
+     *
+     * @return the id of the next card in the deck
+     * @throws IndexOutOfBoundsException if the deck is empty
+     */
+    @Override
+    public int drawCardId() {
+        if (top == cards.length) {
+            throw new IndexOutOfBoundsException("The deck is empty.");
+        }
+        int id = cards[top++];
+        rankCounts.remove(Card.rankOf(id));
+        return id;
     }
 
     /**
@@ -54,8 +135,9 @@ public class Deck {
      *
      * @return {@code true} if all cards have been drawn, otherwise {@code false}
      */
+    @Override
     public boolean isEmpty() {
-        return cards.isEmpty();
+        return top == cards.length;
     }
 
     /**
@@ -63,7 +145,18 @@ public class Deck {
      *
      * @return the size of the deck
      */
+    @Override
     public int getSize() {
-        return cards.size();
+        return cards.length - top;
+    }
+
+    /**
+     * Returns the running count of undrawn cards of each rank, updated on every draw.
+     *
+     * @return the live rank counts of this deck
+     */
+    @Override
+    public RankCounts getRankCounts() {
+        return rankCounts;
     }
 }
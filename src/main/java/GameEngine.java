@@ -1,10 +1,13 @@
+import java.io.PrintStream;
 import java.util.Scanner;
 
 /**
- * The core controller for the Higher or Lower game.
+ * The interactive front end for the Higher or Lower game.
  * <p>
- * The {@code GameEngine} manages user interaction, game flow, card drawing,
- * score/lives updates, and delegates card/leaderboard logic to other classes.
+ * The {@code GameEngine} manages user interaction and game flow. The rules
+ * themselves live in the headless {@link GameState}; this class asks a
+ * {@link GuessStrategy} for each guess, steps the state, and reports each
+ * round to the player.
  * </p>
  *
  * <h2>Game Rules</h2>
@@ -25,45 +28,52 @@ import java.util.Scanner;
  */
 public class GameEngine {
 
-    private Deck deck;
-    private Card currentCard;
+    private GameState state;
     private Scanner scanner;
+    private PrintStream out;
     private Player player;
+    private boolean showHints;
 
     /**
      * Constructs a new {@code GameEngine}, initialising a fresh shuffled deck,
      * drawing the first card, and creating a {@link Scanner} for user input.
      */
     public GameEngine() {
-        deck = new Deck();
-        currentCard = deck.drawCard();
-        scanner = new Scanner(System.in);
+        this(new Deck());
     }
 
     /**
-     * Prompts the user for a guess of "higher" or "lower".
-     * Accepts both full words and abbreviations (e.g., "h", "H", "higher").
-     * <p>
-     * The method will continue prompting until valid input is received.
-     * </p>
+     * Constructs a new {@code GameEngine} that draws from the given card source,
+     * such as a multi-deck {@link Shoe} for longer sessions.
      *
-     * @return the player's choice as a normalised string: either {@code "higher"} or {@code "lower"}
+     * @param deck the cards to play with; the first card is drawn immediately
      */
-    private String getPlayerChoice() {
-        while (true) {
-            System.out.println("Higher or Lower? (H/L)");
-            String input = scanner.nextLine().trim().toLowerCase();
-
-            if (input.startsWith("h")) {
-                return "higher";
-            }
+    public GameEngine(CardSource deck) {
+        this(deck, new Scanner(System.in), System.out);
+    }
 
-            if (input.startsWith("l")) {
-                return "lower";
-            }
+    /**
+     * Constructs a new {@code GameEngine} that talks to the player through the
+     * given input and output instead of the console.
+     *
+     * @param deck    the cards to play with; the first card is drawn immediately
+     * @param scanner the source of the player's input
+     * @param out     where game messages are written
+     */
+    public GameEngine(CardSource deck, Scanner scanner, PrintStream out) {
+        this.state = new GameState(deck);
+        this.scanner = scanner;
+        this.out = out;
+    }
 
-            System.out.println("Invalid input. Please type Higher or Lower.");
-        }
+    /**
+     * Turns the odds hint on or off. When on, the chance of the next card being
+     * higher, lower or equal is shown with every current card.
+     *
+     * @param showHints {@code true} to show the odds each round
+     */
+    public void setShowHints(boolean showHints) {
+        this.showHints = showHints;
     }
 
     /**
@@ -84,53 +94,53 @@ public class GameEngine {
      *         which can be used by other components (e.g., leaderboard)
      */
     public Player run() {
-        System.out.println("Welcome to Higher or Lower!");
-        System.out.println("What is your name?");
+        out.println("Welcome to Higher or Lower!");
+        out.println("What is your name?");
         String input = scanner.nextLine().trim();
-        player = new Player(input);
-        System.out.println("Welcome " + player.getName() + "! You have " + player.getLives() + " lives.");
-
-        while (!deck.isEmpty() && player.isAlive()) {
+        return run(input, new ConsoleGuessStrategy(scanner, out));
+    }
 
-            System.out.println("Current card: " + currentCard);
-            String choice = getPlayerChoice();
+    /**
+     * Runs the game loop for the named player, taking guesses from the given
+     * strategy instead of prompting for them.
+     *
+     * @param name     the player's name
+     * @param strategy the source of the player's guesses
+     * @return the final {@link Player} object, containing name, score and remaining lives
+     */
+    public Player run(String name, GuessStrategy strategy) {
+        player = new Player(name);
+        out.println("Welcome " + player.getName() + "! You have " + player.getLives() + " lives.");
+
+        while (!state.isOver()) {
+
+            out.println("Current card: " + state.getCurrentCard());
+            if (showHints) {
+                out.printf("Odds: higher %.0f%%, lower %.0f%%, same %.0f%%%n",
+                        100 * state.getHigherProbability(),
+                        100 * state.getLowerProbability(),
+                        100 * state.getEqualProbability());
+            }
+            Guess guess = strategy.guess(state);
 
             // Draw next card AFTER the guess
-            Card nextCard = deck.drawCard();
-            System.out.println("Next card: " + nextCard);
-
-            boolean isHigher = nextCard.getRank().getValue() > currentCard.getRank().getValue();
-            boolean isLower  = nextCard.getRank().getValue() < currentCard.getRank().getValue();
-            boolean isEqual  = nextCard.getRank().getValue() == currentCard.getRank().getValue();
-
-            boolean correctGuess =
-                    (choice.equals("higher") && isHigher) ||
-                            (choice.equals("lower")  && isLower);
+            Outcome outcome = state.step(guess);
+            out.println("Next card: " + state.getCurrentCard());
 
-            if (correctGuess) {
-                player.increaseScore();
-                System.out.println("Correct! Score: " + player.getScore());
-                currentCard = nextCard;
-            } else {
-                if (isEqual) {
-                    System.out.println("Cards are the same. No points awarded!");
-                    currentCard = nextCard;
-                    continue;
-                } else {
+            switch (outcome) {
+                case CORRECT -> {
+                    player.increaseScore();
+                    out.println("Correct! Score: " + player.getScore());
+                }
+                case TIE -> out.println("Cards are the same. No points awarded!");
+                case WRONG -> {
                     player.loseLife();
-                    System.out.println("Wrong! Lives remaining: " + player.getLives());
-
-                    if (!player.isAlive()) {
-                        break; // Player is out of lives
-                    }
-
-                    currentCard = nextCard;
-                    continue;
+                    out.println("Wrong! Lives remaining: " + player.getLives());
                 }
             }
         }
 
-        System.out.println("Game over! Final score: " + player.getScore());
+        out.println("Game over! Final score: " + player.getScore());
         return player;
     }
 }
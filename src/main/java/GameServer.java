@@ -0,0 +1,200 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A TCP server that hosts many concurrent games of Higher or Lower in one process.
+ * <p>
+ * Every connection gets its own {@link GameEngine} session running on its own thread.
+ * The protocol is plain text lines and mirrors the console game: the server sends the
+ * same prompts the console shows, and the client answers with a name, {@code H}/{@code L}
+ * guesses and {@code Y}/{@code N} to play again. Every finished game is recorded in a
+ * single shared {@link Leaderboard}.
+ * </p>
+ *
+ * <h2>Threads</h2>
+ * <p>
+ * Sessions run on virtual threads when the JVM provides them (Java 21 and later), so an
+ * idle player costs very little. On older JVMs the server falls back to a cached pool of
+ * platform threads.
+ * </p>
+ *
+ * <p>
+ * A session blocked reading from its client does not notice an interrupt on a platform
+ * thread, so {@link #close()} closes every client socket as well, which wakes it.
+ * </p>
+ */
+public class GameServer implements AutoCloseable {
+
+    /** The port used when none is given on the command line. */
+    public static final int DEFAULT_PORT = 4040;
+
+    /** The entries a long-running server keeps when it compacts its leaderboard. */
+    public static final RetentionPolicy RETENTION =
+            RetentionPolicy.keepAll().withBestPerPlayer(10).withoutZeroScores().withMaxEntries(100_000);
+
+    /** How often a long-running server compacts its leaderboard. */
+    public static final Duration COMPACTION_PERIOD = Duration.ofHours(1);
+
+    private final ServerSocket serverSocket;
+    private final Leaderboard leaderboard;
+    private final ExecutorService sessions;
+    private Thread acceptor;
+
+    /** The sockets of every running session. */
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean closing;
+
+    /**
+     * Creates a server listening on the given port.
+     *
+     * @param port        the port to listen on, or 0 for any free port
+     * @param leaderboard the leaderboard every session reports its results to
+     * @throws IOException if the port cannot be opened
+     */
+    public GameServer(int port, Leaderboard leaderboard) throws IOException {
+        this.serverSocket = new ServerSocket(port);
+        this.leaderboard = leaderboard;
+        this.sessions = newSessionExecutor();
+    }
+
+    /**
+     * Starts accepting connections on a background thread.
+     */
+    public void start() {
+        acceptor = new Thread(this::acceptLoop, "game-server-acceptor");
+        acceptor.start();
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return the local port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections, closes every client connection and interrupts
+     * running sessions.
+     *
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        closing = true;
+        serverSocket.close();
+        for (Socket client : clients) {
+            closeQuietly(client);
+        }
+        sessions.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                clients.add(socket);
+                // close() may have run before the socket was added
+                if (closing) {
+                    clients.remove(socket);
+                    closeQuietly(socket);
+                    return;
+                }
+                try {
+                    sessions.execute(() -> serve(socket));
+                } catch (RejectedExecutionException e) {
+                    clients.remove(socket);
+                    closeQuietly(socket);
+                }
+            } catch (SocketException e) {
+                // The server socket was closed
+                return;
+            } catch (IOException e) {
+                System.out.println("Error accepting connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Plays games with one client until they decline to play again or disconnect.
+     *
+     * @param socket the client connection
+     */
+    private void serve(Socket socket) {
+        try (socket;
+             Scanner in = new Scanner(socket.getInputStream(), StandardCharsets.UTF_8);
+             PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+
+            while (true) {
+                Player p = new GameEngine(new Deck(), in, out).run();
+
+                leaderboard.addEntry(p.getName(), p.getScore());
+
+                out.println("Would you like to play again? (Y/N)");
+                if (!in.nextLine().trim().toLowerCase().startsWith("y")) {
+                    out.println("Thanks for playing!");
+                    return;
+                }
+            }
+        } catch (NoSuchElementException | IOException e) {
+            // The client disconnected
+        } finally {
+            clients.remove(socket);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+
+    /**
+     * Creates the executor that runs sessions: one virtual thread per session where
+     * available, otherwise a cached thread pool.
+     *
+     * @return a new executor for game sessions
+     */
+    static ExecutorService newSessionExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Runs the server until the process is stopped.
+     *
+     * @param args {@code [port]}, defaulting to {@link #DEFAULT_PORT}
+     * @throws IOException if the port cannot be opened
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Leaderboard leaderboard = new Leaderboard(WriteBehindLeaderboardStore.forSharedFile(new File("leaderboard.txt"),
+                RETENTION));
+        new LeaderboardCompactor(leaderboard, RETENTION).start(COMPACTION_PERIOD);
+        GameServer server = new GameServer(port, leaderboard);
+        server.start();
+        System.out.println("Higher or Lower server listening on port " + server.getPort());
+    }
+}
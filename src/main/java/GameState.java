@@ -0,0 +1,183 @@
+/**
+ * The headless state machine behind a game of Higher or Lower.
+ * <p>
+ * A {@code GameState} holds the card source, the current card and the player's
+ * lives and score as primitives, and advances one round per call to
+ * {@link #step(Guess)}. It performs no I/O and allocates nothing per round, so it
+ * can be driven at machine speed by bots, simulations or network front ends as
+ * well as by the interactive {@link GameEngine}.
+ * </p>
+ *
+ * <p>
+ * The rules are those described on {@link GameEngine}.
+ * </p>
+ */
+public class GameState {
+
+    /** The number of lives a player starts with. */
+    public static final int DEFAULT_LIVES = 3;
+
+    private final CardSource deck;
+    private int currentCard;
+    private int lives;
+    private int score;
+    private int round;
+
+    /**
+     * Starts a new game with {@link #DEFAULT_LIVES} lives, drawing the first card
+     * from the given source.
+     *
+     * @param deck the cards to play with
+     */
+    public GameState(CardSource deck) {
+        this(deck, DEFAULT_LIVES);
+    }
+
+    /**
+     * Starts a new game with the given number of lives, drawing the first card
+     * from the given source.
+     *
+     * @param deck  the cards to play with
+     * @param lives the number of lives the player starts with
+     */
+    public GameState(CardSource deck, int lives) {
+        this.deck = deck;
+        this.lives = lives;
+        this.currentCard = deck.drawCardId();
+    }
+
+    /**
+     * Plays one round: draws the next card, judges the guess against the current
+     * card, and updates the score or lives. The drawn card becomes the current card.
+     *
+     * @param guess the player's guess for the next card
+     * @return the outcome of the round
+     * @throws IllegalStateException if the game is already over
+     */
+    public Outcome step(Guess guess) {
+        if (isOver()) {
+            throw new IllegalStateException("The game is over.");
+        }
+        int nextCard = deck.drawCardId();
+        Outcome outcome = Outcome.judge(guess, currentCard, nextCard);
+        currentCard = nextCard;
+        round++;
+        score += outcome.getPoints();
+        lives -= outcome.getLivesLost();
+        return outcome;
+    }
+
+    /**
+     * Plays the game to the end, asking the strategy for every guess.
+     *
+     * @param strategy the source of guesses
+     * @return the final score
+     */
+    public int play(GuessStrategy strategy) {
+        while (!isOver()) {
+            step(strategy.guess(this));
+        }
+        return score;
+    }
+
+    /**
+     * Returns whether the game has ended, either because the player has no lives
+     * left or because no cards remain.
+     *
+     * @return {@code true} if no more rounds can be played
+     */
+    public boolean isOver() {
+        return lives <= 0 || deck.isEmpty();
+    }
+
+    /**
+     * Returns the probability that the next card is ranked higher than the current card.
+     * <p>
+     * This and the other probabilities are read from the card source's running
+     * {@link RankCounts}, so they cost O(1) and never rescan the deck.
+     * </p>
+     *
+     * @return the chance of a higher card, or 0 if no cards remain
+     */
+    public double getHigherProbability() {
+        RankCounts counts = deck.getRankCounts();
+        int total = counts.total();
+        return total == 0 ? 0 : (double) counts.countAbove(Card.rankOf(currentCard)) / total;
+    }
+
+    /**
+     * Returns the probability that the next card is ranked lower than the current card.
+     *
+     * @return the chance of a lower card, or 0 if no cards remain
+     */
+    public double getLowerProbability() {
+        RankCounts counts = deck.getRankCounts();
+        int total = counts.total();
+        return total == 0 ? 0 : (double) counts.countBelow(Card.rankOf(currentCard)) / total;
+    }
+
+    /**
+     * Returns the probability that the next card has the same rank as the current card.
+     *
+     * @return the chance of an equal rank, or 0 if no cards remain
+     */
+    public double getEqualProbability() {
+        RankCounts counts = deck.getRankCounts();
+        int total = counts.total();
+        return total == 0 ? 0 : (double) counts.countOf(Card.rankOf(currentCard)) / total;
+    }
+
+    /**
+     * Returns the current card.
+     *
+     * @return the card the next guess is compared against
+     */
+    public Card getCurrentCard() {
+        return Card.of(currentCard);
+    }
+
+    /**
+     * Returns the id of the current card (see {@link Card#getId()}).
+     *
+     * @return the current card id
+     */
+    public int getCurrentCardId() {
+        return currentCard;
+    }
+
+    /**
+     * Returns the number of lives the player has left.
+     *
+     * @return the remaining lives
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * Returns the player's score so far.
+     *
+     * @return the number of correct guesses
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the number of rounds played so far.
+     *
+     * @return the number of completed rounds
+     */
+    public int getRound() {
+        return round;
+    }
+
+    /**
+     * Returns the source the game is drawing from.
+     *
+     * @return the game's card source
+     */
+    public CardSource getDeck() {
+        return deck;
+    }
+}
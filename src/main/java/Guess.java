@@ -0,0 +1,9 @@
+/**
+ * A player's guess about the next card: that its rank will be higher or lower
+ * than the rank of the current card.
+ */
+public enum Guess {
+
+    HIGHER,
+    LOWER
+}
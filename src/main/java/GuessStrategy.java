@@ -0,0 +1,19 @@
+/**
+ * Supplies a player's guesses to a game.
+ * <p>
+ * Implementations may read from the console, follow a script, run a bot, or
+ * relay guesses from a network client. The strategy is shown the current
+ * {@link GameState} and must only read from it.
+ * </p>
+ */
+@FunctionalInterface
+public interface GuessStrategy {
+
+    /**
+     * Chooses a guess for the next card.
+     *
+     * @param state the state of the game, positioned on the current card
+     * @return the guess to play
+     */
+    Guess guess(GameState state);
+}
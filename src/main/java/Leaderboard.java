@@ -1,35 +1,177 @@
 import java.io.File;
-import java.io.PrintWriter;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Manages a persistent leaderboard of player scores.
  * <p>
- * The {@code Leaderboard} class is responsible for storing, sorting,
- * saving and loading a list of {@link LeaderboardEntry} objects.
- * Entries are saved to a text file, allowing scores to persist across program runs.
+ * The {@code Leaderboard} class is responsible for storing and ranking
+ * {@link LeaderboardEntry} objects. Persistence is delegated to a
+ * {@link LeaderboardStore}, allowing scores to persist across program runs.
  * </p>
  *
+ * <h2>Ordering</h2>
+ * Entries are kept in an ordered set, sorted by descending score and then by
+ * submission order, so equal scores stay in the order they were achieved and
+ * adding an entry costs O(log n) rather than a full sort.
+ *
+ * <h2>Thread Safety</h2>
+ * A leaderboard may be shared by many game threads. The ordered set is a
+ * {@link ConcurrentSkipListSet}, and sequence numbers, the entry count and the
+ * top-K cutoff are atomics, so submissions never take a global lock in memory.
+ * Readers never block. Writes to the store are serialised, since they go
+ * to one file. When the store asks to be compacted, the compaction runs on a
+ * background thread, so no game thread waits for the snapshot to be written;
+ * {@link #flush()} waits for it.
+ *
+ * <h2>Snapshots</h2>
+ * Every query, from {@link #getEntries()} and the page queries to ranks and
+ * percentiles, reads the last immutable {@link LeaderboardSnapshot} published
+ * through a volatile reference, so readers never block or race submissions and
+ * never see a torn board. Changes are queued as they happen and merged into the
+ * previous snapshot's sorted run in batches, since each merge copies the whole
+ * run: a submission only publishes once as many changes have queued as the board
+ * holds, so the copying costs O(1) per submission however large the board grows.
+ * A query publishes whatever has queued since, so a thread's own submission is
+ * visible to its next query. Publishing never blocks: whichever thread can take
+ * the snapshot writer lock merges every queued change, and threads that find it
+ * taken leave their changes to it and read the last snapshot, in which case the
+ * changes appear as soon as the holder's current merge finishes.
+ *
+ * <h2>Rank Queries</h2>
+ * Ranks, percentiles and page positions are found by binary search on the
+ * snapshot's sorted scores, and a {@link PlayerStats} table records each player's
+ * best score, so the rank of a score or player is found in O(log n) time instead
+ * of by walking the entries.
+ *
+ * <h2>Time Windows</h2>
+ * Every entry is timestamped, and {@link RollingLeaderboard}s registered with
+ * {@link #addWindow(RollingLeaderboard)} keep daily, weekly or other rolling
+ * boards up to date with each submission.
+ *
+ * <h2>Retention</h2>
+ * {@link #compact(RetentionPolicy)} drops entries a {@link RetentionPolicy} does
+ * not keep, such as all but each player's best few games, and rewrites the store
+ * without them, so the files and the time to load them stay bounded however long
+ * the game runs. Player statistics are not saved: they count every game
+ * submitted since the leaderboard was created, but at startup they are rebuilt
+ * from the entries loaded from the store, so games a policy has dropped, or that
+ * never made a top-K board, are no longer counted after a restart.
+ *
+ * <h2>Top-K Mode</h2>
+ * A leaderboard may be given a capacity, in which case only the best {@code K}
+ * entries are kept. A score that would not make the board is rejected in O(1)
+ * by comparing it with the cached cutoff score, without touching the ordered set
+ * or the store.
+ *
  * <h2>File Format</h2>
- * Each line in the leaderboard file is stored as:
+ * By default entries are kept in {@code leaderboard.txt} by an
+ * {@link AppendOnlyLeaderboardStore}, with each line stored as:
  * <pre>
- *     name,score
+ *     name,score@timestamp
  * </pre>
+ * where the timestamp is when the game was played, in epoch milliseconds.
+ * Each new result is appended to a log next to the file, and the file itself is
+ * rewritten in sorted order only when the log is compacted.
  *
  * <p>
- * The class supports two constructors: one for normal gameplay using the default
- * {@code leaderboard.txt} file, and another for testing, allowing injection of
- * a temporary file to avoid interfering with real saved scores.
+ * The class supports constructors for normal gameplay using the default
+ * {@code leaderboard.txt} file, for testing with an injected temporary file to
+ * avoid interfering with real saved scores, and for supplying any other store.
  * </p>
  */
 public class Leaderboard {
 
-    /** The list of leaderboard entries loaded from or saved to file. */
-    private ArrayList<LeaderboardEntry> entries;
+    /** Capacity of a leaderboard that keeps every entry. */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /** The fewest queued changes that make a submission publish a snapshot. */
+    private static final int MIN_SNAPSHOT_BATCH = 1024;
+
+    /** Descending score, then ascending submission order. */
+    private static final Comparator<LeaderboardEntry> RANKING =
+            Comparator.comparingInt(LeaderboardEntry::getScore).reversed()
+                    .thenComparingLong(LeaderboardEntry::getSequence);
+
+    /** The leaderboard entries, best first. */
+    private final ConcurrentSkipListSet<LeaderboardEntry> entries = new ConcurrentSkipListSet<>(RANKING);
+
+    /** The number of entries in {@link #entries}, which cannot count itself in O(1). */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /** The most entries kept, or {@link #UNBOUNDED}. */
+    private final int capacity;
+
+    /** The lowest score on a full board; scores at or below it are rejected. */
+    private final AtomicInteger cutoff = new AtomicInteger(Integer.MIN_VALUE);
+
+    /** The sequence number given to the next entry. */
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    /** Each player's aggregate statistics, including their best score. */
+    private final PlayerStats stats;
+
+    /** Rolling boards fed with every submission. */
+    private final List<RollingLeaderboard> windows = new CopyOnWriteArrayList<>();
+
+    /** Entries that are on the board but not yet written to the store. */
+    private final Set<LeaderboardEntry> unsaved = ConcurrentHashMap.newKeySet();
+
+    /** The last published snapshot. */
+    private volatile LeaderboardSnapshot snapshot = LeaderboardSnapshot.EMPTY;
+
+    /** Held by the one thread building the next snapshot. */
+    private final ReentrantLock snapshotWriter = new ReentrantLock();
+
+    /** Entries placed on the board since the last snapshot. */
+    private final Queue<LeaderboardEntry> placed = new ConcurrentLinkedQueue<>();
+
+    /** Entries evicted or compacted off the board since the last snapshot. */
+    private final Queue<LeaderboardEntry> displaced = new ConcurrentLinkedQueue<>();
+
+    /** The number of entries in {@link #placed} and {@link #displaced}. */
+    private final AtomicInteger pendingChanges = new AtomicInteger();
+
+    /** Removed entries whose placement has not reached a snapshot yet; writer only. */
+    private final LeaderboardSnapshot.Removals unmatchedRemovals = new LeaderboardSnapshot.Removals();
+
+    /** The names in every snapshot; writer only. */
+    private final LeaderboardSnapshot.NamePool namePool = new LeaderboardSnapshot.NamePool();
+
+    /** The store used to persist leaderboard data, or {@code null} for an in-memory board. */
+    private final LeaderboardStore store;
 
-    /** The file used to store persistent leaderboard data. */
-    private File file;
+    /** Compacts the store when it asks to be, off the game threads; its thread exits when idle. */
+    private final ExecutorService compactor = new ThreadPoolExecutor(0, 1, 10, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), task -> {
+                Thread thread = new Thread(task, "leaderboard-store-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /** Whether a compaction requested by the store is queued or running. */
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
 
     /**
      * Constructs a new {@code Leaderboard} using the default
@@ -40,9 +182,7 @@ public class Leaderboard {
      * </p>
      */
     public Leaderboard() {
-        entries = new ArrayList<>();
-        file = new File("leaderboard.txt");
-        loadFromFile();
+        this(new File("leaderboard.txt"));
     }
 
     /**
@@ -55,105 +195,529 @@ public class Leaderboard {
      * @param file the file to load from and save to
      */
     public Leaderboard(File file) {
-        entries = new ArrayList<>();
-        this.file = file;
-        loadFromFile();
+        this(file, UNBOUNDED);
+    }
+
+    /**
+     * Constructs a {@code Leaderboard} using a custom file that keeps only the
+     * best {@code capacity} entries.
+     *
+     * @param file     the file to load from and save to
+     * @param capacity the number of entries to keep
+     */
+    public Leaderboard(File file, int capacity) {
+        this(new AppendOnlyLeaderboardStore(file), capacity);
+    }
+
+    /**
+     * Constructs a {@code Leaderboard} backed by the given store, loading every
+     * entry it has saved.
+     *
+     * @param store the store to load from and save to
+     */
+    public Leaderboard(LeaderboardStore store) {
+        this(store, UNBOUNDED);
+    }
+
+    /**
+     * Constructs a {@code Leaderboard} backed by the given store that keeps only
+     * the best {@code capacity} entries.
+     *
+     * @param store    the store to load from and save to
+     * @param capacity the number of entries to keep
+     * @throws IllegalArgumentException if {@code capacity} is less than 1
+     */
+    public Leaderboard(LeaderboardStore store, int capacity) {
+        this(store, capacity, new PlayerStats());
+    }
+
+    /**
+     * Constructs a {@code Leaderboard} backed by the given store that records
+     * per-player statistics in {@code stats}.
+     *
+     * @param store    the store to load from and save to
+     * @param capacity the number of entries to keep, or {@link #UNBOUNDED}
+     * @param stats    the statistics to update with every loaded and added entry
+     * @throws IllegalArgumentException if {@code capacity} is less than 1
+     */
+    public Leaderboard(LeaderboardStore store, int capacity, PlayerStats stats) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A leaderboard must hold at least one entry.");
+        }
+        this.store = store;
+        this.capacity = capacity;
+        this.stats = stats;
+        if (store != null) {
+            for (LeaderboardEntry loaded : store.load(capacity)) {
+                String name = stats.record(loaded.getName(), loaded.getScore(), loaded.getTimestamp());
+                insert(name, loaded.getScore(), loaded.getTimestamp());
+            }
+            publishPending();
+        }
     }
 
     /**
-     * Adds a new entry to the leaderboard, sorts all entries in descending
-     * score order, and saves the updated leaderboard to disk.
+     * Creates a leaderboard that is never saved, for simulations and tests.
+     *
+     * @param capacity the number of entries to keep, or {@link #UNBOUNDED}
+     * @return a new empty in-memory leaderboard
+     */
+    public static Leaderboard inMemory(int capacity) {
+        return new Leaderboard((LeaderboardStore) null, capacity);
+    }
+
+    /**
+     * Adds a new entry to the leaderboard in descending score order and saves it
+     * to the store. When the store asks to be compacted, a compaction is started on
+     * a background thread.
+     * <p>
+     * On a full top-K board, a score that does not beat the lowest entry is
+     * ignored. This method may be called from any thread.
+     * </p>
      *
      * @param name  the player's name
      * @param score the player's final score
      */
     public void addEntry(String name, int score) {
-        entries.add(new LeaderboardEntry(name, score));
-        sortEntries();
-        saveToFile();
+        addEntry(name, score, System.currentTimeMillis());
     }
 
     /**
-     * Returns the list of leaderboard entries.
+     * Adds a new entry for a game played at the given time, as {@link #addEntry(String, int)}
+     * does, and counts it towards every {@linkplain #addWindow(RollingLeaderboard) window}.
+     *
+     * @param name      the player's name
+     * @param score     the player's final score
+     * @param timestamp when the game was played, in epoch milliseconds
+     */
+    public void addEntry(String name, int score, long timestamp) {
+        name = stats.record(name, score, timestamp);
+        if (!windows.isEmpty()) {
+            LeaderboardEntry played = new LeaderboardEntry(name, score, timestamp);
+            for (RollingLeaderboard window : windows) {
+                window.add(played);
+            }
+        }
+        if (store == null) {
+            insert(name, score, timestamp);
+            publishIfBatched();
+            return;
+        }
+        if (score <= cutoff.get()) {
+            return;
+        }
+        LeaderboardEntry entry = new LeaderboardEntry(name, score, timestamp, nextSequence.getAndIncrement());
+        unsaved.add(entry);
+        boolean onBoard = place(entry);
+        publishIfBatched();
+        if (!onBoard) {
+            unsaved.remove(entry);
+            return;
+        }
+        synchronized (store) {
+            store.append(entry);
+            unsaved.remove(entry);
+        }
+        if (store.needsCompaction() && compactionScheduled.compareAndSet(false, true)) {
+            compactor.execute(this::compactStore);
+        }
+    }
+
+    /** Compacts the store with every saved entry on the board, on the compactor thread. */
+    private void compactStore() {
+        try {
+            synchronized (store) {
+                if (store.needsCompaction()) {
+                    // Entries still waiting to be appended will go to the new log instead
+                    List<LeaderboardEntry> saved = new ArrayList<>(entries);
+                    saved.removeAll(unsaved);
+                    store.compact(saved);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Error compacting leaderboard: " + e);
+        } finally {
+            compactionScheduled.set(false);
+        }
+    }
+
+    /**
+     * Waits until every entry added so far has been handed to the store and written,
+     * including any compaction the store asked for.
+     */
+    public void flush() {
+        if (store == null) {
+            return;
+        }
+        try {
+            compactor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // The marker task cannot fail
+        }
+        store.flush();
+    }
+
+    /**
+     * Places a new entry on the board.
+     *
+     * @return the new entry, or {@code null} if the score did not make the board
+     */
+    private LeaderboardEntry insert(String name, int score, long timestamp) {
+        if (score <= cutoff.get()) {
+            return null;
+        }
+        LeaderboardEntry entry = new LeaderboardEntry(name, score, timestamp, nextSequence.getAndIncrement());
+        return place(entry) ? entry : null;
+    }
+
+    /**
+     * Adds an entry to the ordered set, evicting the lowest entry if the board overflows
+     * and raising the cutoff once the board is full.
+     *
+     * @return {@code false} if the entry is no longer on the board, whether this call or a
+     *         concurrent one evicted it
+     */
+    private boolean place(LeaderboardEntry entry) {
+        entries.add(entry);
+        recordChange(placed, entry);
+        LeaderboardEntry evicted = null;
+        if (size.incrementAndGet() > capacity) {
+            evicted = entries.pollLast();
+            if (evicted != null) {
+                size.decrementAndGet();
+                recordChange(displaced, evicted);
+            }
+        }
+        if (capacity != UNBOUNDED && size.get() >= capacity) {
+            LeaderboardEntry last = entries.last();
+            cutoff.accumulateAndGet(last.getScore(), Math::max);
+        }
+        // Another thread's pollLast() may have evicted this entry rather than ours
+        return evicted != entry && entries.contains(entry);
+    }
+
+    /**
+     * Drops the saved entries a retention policy does not keep, from the board and from
+     * the store, and reports what was reclaimed.
      * <p>
-     * The returned list is the internal list; modifications will affect the
-     * leaderboard. This is acceptable for this project, but an immutable list
-     * could be returned in a more restrictive design.
+     * This is meant to be run off the game threads, for example by a
+     * {@link LeaderboardCompactor}. Submissions wait only while the kept entries are
+     * chosen and handed to the store; with a {@link WriteBehindLeaderboardStore} the
+     * snapshot itself is written by its flusher, and this method waits for it there.
+     * Entries submitted while the policy is applied are kept and saved as usual.
+     * A top-K board keeps its cutoff, so it does not refill below scores it has
+     * already rejected.
      * </p>
      *
-     * @return the list of leaderboard entries
+     * @param policy the entries to keep
+     * @return the entries and bytes reclaimed; byte counts are -1 for an in-memory board
+     *         or a store that cannot report its size
      */
-    public ArrayList<LeaderboardEntry> getEntries() {
-        return entries;
+    public CompactionReport compact(RetentionPolicy policy) {
+        long bytesBefore = storedBytes();
+        List<LeaderboardEntry> saved;
+        List<LeaderboardEntry> kept;
+        synchronized (store != null ? store : entries) {
+            saved = new ArrayList<>(entries);
+            saved.removeAll(unsaved);
+            kept = policy.apply(saved);
+            Set<LeaderboardEntry> keep = Collections.newSetFromMap(new IdentityHashMap<>());
+            keep.addAll(kept);
+            for (LeaderboardEntry entry : saved) {
+                // A concurrent eviction may already have removed it
+                if (!keep.contains(entry) && entries.remove(entry)) {
+                    size.decrementAndGet();
+                    recordChange(displaced, entry);
+                }
+            }
+            if (store != null) {
+                store.compact(kept);
+            }
+        }
+        publishPending();
+        return new CompactionReport(saved.size(), kept.size(), bytesBefore, storedBytes());
+    }
+
+    /** Returns the size of the store once everything handed to it is written, or -1. */
+    private long storedBytes() {
+        if (store == null) {
+            return -1;
+        }
+        store.flush();
+        return store.sizeInBytes();
     }
 
     /**
-     * Sorts the leaderboard entries in descending order by score.
+     * Returns the leaderboard entries, best first.
      * <p>
-     * This method ensures that higher scores always appear at the top of the
-     * leaderboard. It is private because sorting should only occur internally
-     * when updating the stored data.
+     * The returned list is a read-only view of the current {@linkplain #snapshot()
+     * snapshot}; it cannot be modified, and concurrent submissions cannot change it.
      * </p>
+     *
+     * @return the list of leaderboard entries
      */
-    private void sortEntries() {
-        entries.sort((a, b) -> Integer.compare(b.getScore(), a.getScore()));
+    public List<LeaderboardEntry> getEntries() {
+        return snapshot().getEntries();
     }
 
     /**
-     * Saves all leaderboard entries to the associated file.
+     * Returns the current snapshot of the board, without blocking.
      * <p>
-     * Each entry is written on its own line in the format {@code name,score}.
-     * Errors are caught and logged to the console, but not rethrown, as failure
-     * to save the leaderboard is not considered fatal for gameplay.
+     * Changes queued since the last snapshot are published first, so it includes every
+     * change this thread has made, unless another thread is publishing at the time, in
+     * which case the last snapshot is returned and the change appears once that
+     * thread's current merge finishes. An unchanged board returns its last snapshot.
      * </p>
+     *
+     * @return the current snapshot
+     */
+    public LeaderboardSnapshot snapshot() {
+        publishPending();
+        return snapshot;
+    }
+
+    /**
+     * Publishes the queued changes once as many have queued as the board holds, so the
+     * cost of copying the board into a new snapshot is spread over the submissions.
      */
-    private void saveToFile() {
-        try (PrintWriter writer = new PrintWriter(file)) {
-            for (LeaderboardEntry entry : entries) {
-                writer.println(entry.getName() + "," + entry.getScore());
+    private void publishIfBatched() {
+        if (pendingChanges.get() >= Math.max(MIN_SNAPSHOT_BATCH, snapshot.size())) {
+            publishPending();
+        }
+    }
+
+    /**
+     * Publishes the changes queued so far, unless another thread is already publishing.
+     * A thread that finds the lock taken leaves its changes to the holder, which checks
+     * for more after releasing the lock, so no change is left unpublished.
+     */
+    private void publishPending() {
+        while (pendingChanges.get() > 0 && snapshotWriter.tryLock()) {
+            try {
+                publishSnapshot();
+            } finally {
+                snapshotWriter.unlock();
             }
-        } catch (Exception e) {
-            System.out.println("Error writing leaderboard file.");
         }
     }
 
     /**
-     * Loads leaderboard entries from the associated file, if it exists.
-     * <p>
-     * Each line is parsed into a {@link LeaderboardEntry}. Invalid lines or
-     * formatting errors are caught and logged, but do not stop execution.
-     * </p>
+     * Merges the changes made since the last snapshot into a new one. The caller must
+     * hold {@link #snapshotWriter}.
      */
-    private void loadFromFile() {
-        if (!file.exists()) return;
+    private void publishSnapshot() {
+        // Drain additions first, so every drained removal's addition is drained by now or later
+        List<LeaderboardEntry> added = new ArrayList<>();
+        for (LeaderboardEntry entry; (entry = placed.poll()) != null; ) {
+            added.add(entry);
+        }
+        int drained = added.size();
+        for (LeaderboardEntry entry; (entry = displaced.poll()) != null; ) {
+            unmatchedRemovals.add(entry.getSequence());
+            drained++;
+        }
+        if (drained > 0) {
+            snapshot = snapshot.merge(added, unmatchedRemovals, namePool);
+            pendingChanges.addAndGet(-drained);
+        }
+    }
+
+    /** Queues an entry placed on or taken off the board for the next snapshot. */
+    private void recordChange(Queue<LeaderboardEntry> changes, LeaderboardEntry entry) {
+        changes.add(entry);
+        pendingChanges.incrementAndGet();
+    }
 
-        try (Scanner reader = new Scanner(file)) {
-            while (reader.hasNextLine()) {
-                String line = reader.nextLine();
-                String[] parts = line.split(",");
-                String name = parts[0];
-                int score = Integer.parseInt(parts[1]);
-                entries.add(new LeaderboardEntry(name, score));
+    /**
+     * Registers a rolling board, such as a daily or weekly one, to be fed every
+     * submission from now on. Entries already on this board are added to it first,
+     * so windows should be registered before games are submitted from other threads.
+     *
+     * @param window the rolling board
+     * @return the rolling board
+     */
+    public RollingLeaderboard addWindow(RollingLeaderboard window) {
+        for (LeaderboardEntry entry : entries) {
+            if (entry.getTimestamp() != 0) {
+                window.add(entry);
             }
-        } catch (Exception e) {
-            System.out.println("Error reading leaderboard file.");
         }
+        windows.add(window);
+        return window;
+    }
+
+    /**
+     * Returns the position a score holds on the board, where 1 is the top and equal
+     * scores share a position.
+     *
+     * @param score the score to rank
+     * @return the 1-based rank
+     */
+    public int getRank(int score) {
+        return snapshot().getRank(score);
+    }
+
+    /**
+     * Returns the percentage of entries on the board that a score equals or beats.
+     *
+     * @param score the score to place
+     * @return the percentile, from 0 to 100, or 0 if the board is empty
+     */
+    public double getPercentile(int score) {
+        return snapshot().getPercentile(score);
+    }
+
+    /**
+     * Returns the best score a player has submitted.
+     *
+     * @param name the player's name
+     * @return the best score, or empty if the player has not played
+     */
+    public OptionalInt getBestScore(String name) {
+        Integer best = stats.getBestScore(name);
+        return best == null ? OptionalInt.empty() : OptionalInt.of(best);
+    }
+
+    /**
+     * Returns the position a player's best score holds on the board.
+     *
+     * @param name the player's name
+     * @return the 1-based rank, or empty if the player has not played
+     */
+    public OptionalInt getPlayerRank(String name) {
+        Integer best = stats.getBestScore(name);
+        return best == null ? OptionalInt.empty() : OptionalInt.of(getRank(best));
+    }
+
+    /**
+     * Returns the percentile of a player's best score on the board.
+     *
+     * @param name the player's name
+     * @return the percentile, or empty if the player has not played
+     */
+    public OptionalDouble getPlayerPercentile(String name) {
+        Integer best = stats.getBestScore(name);
+        return best == null ? OptionalDouble.empty() : OptionalDouble.of(getPercentile(best));
+    }
+
+    /**
+     * Returns a player's aggregate statistics over the games this leaderboard has seen:
+     * those loaded from the store and those submitted since.
+     *
+     * @param name the player's name
+     * @return the player's profile, or empty if they have not played
+     */
+    public Optional<PlayerStats.Profile> getProfile(String name) {
+        return stats.getProfile(name);
+    }
+
+    /**
+     * Returns the number of entries on the board.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Returns the best {@code n} entries.
+     *
+     * @param n the number of entries
+     * @return the first page of up to {@code n} entries
+     */
+    public LeaderboardPage top(int n) {
+        return page(0, n);
+    }
+
+    /**
+     * Returns up to {@code limit} entries starting at the given position, read from the
+     * current snapshot in O(limit) time.
+     *
+     * @param offset the number of entries to skip
+     * @param limit  the most entries to return
+     * @return the page
+     * @throws IllegalArgumentException if {@code offset} or {@code limit} is negative
+     */
+    public LeaderboardPage page(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative.");
+        }
+        return slice(snapshot(), offset, limit);
+    }
+
+    /**
+     * Returns up to {@code limit} entries following a previous page, found in
+     * O(log n) time from the last entry of that page, even if the board has changed
+     * since.
+     *
+     * @param previous the page to continue from
+     * @param limit    the most entries to return
+     * @return the next page, which is empty once the board is exhausted
+     * @throws IllegalArgumentException if {@code limit} is negative
+     */
+    public LeaderboardPage pageAfter(LeaderboardPage previous, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative.");
+        }
+        LeaderboardSnapshot current = snapshot();
+        List<LeaderboardEntry> seen = previous.getEntries();
+        if (seen.isEmpty()) {
+            return new LeaderboardPage(previous.getNextRank(), List.of(), current.size());
+        }
+        LeaderboardEntry last = seen.get(seen.size() - 1);
+        return slice(current, current.indexAfter(last.getScore(), last.getSequence()), limit);
+    }
+
+    /**
+     * Returns a player's best entry on the board with up to {@code radius} entries
+     * either side of it.
+     *
+     * @param name   the player's name
+     * @param radius the number of neighbours to include on each side
+     * @return the page, which is empty if the player has no entry on the board
+     * @throws IllegalArgumentException if {@code radius} is negative
+     */
+    public LeaderboardPage around(String name, int radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("Radius must not be negative.");
+        }
+        LeaderboardSnapshot current = snapshot();
+        int index = current.indexOfBest(name);
+        if (index < 0) {
+            return new LeaderboardPage(1, List.of(), current.size());
+        }
+        int first = Math.max(0, index - radius);
+        return slice(current, first, (int) Math.min((long) index + radius + 1 - first, Integer.MAX_VALUE));
+    }
+
+    /** Returns up to {@code limit} entries of a snapshot starting at {@code offset}. */
+    private static LeaderboardPage slice(LeaderboardSnapshot snapshot, int offset, int limit) {
+        int from = Math.min(offset, snapshot.size());
+        int to = (int) Math.min((long) from + limit, snapshot.size());
+        return new LeaderboardPage(offset + 1, snapshot.getEntries().subList(from, to), snapshot.size());
+    }
+
+    /**
+     * Returns the most entries this leaderboard keeps.
+     *
+     * @return the capacity, or {@link #UNBOUNDED}
+     */
+    public int getCapacity() {
+        return capacity;
     }
 
     /**
      * Prints the leaderboard to the console in a user-friendly format.
      * <p>
      * If no scores are present, a message indicating this is shown instead.
+     * Every entry is printed; on a large board, print a {@link #top(int)} or
+     * {@link #around(String, int)} page with a {@link LeaderboardRenderer} instead.
      * </p>
      */
     public void printLeaderboard() {
-        System.out.println("\n--- Leaderboard ---");
-        if (entries.isEmpty()) {
-            System.out.println("No scores yet!");
-            return;
-        }
-        for (LeaderboardEntry e : entries) {
-            System.out.println(e);
-        }
+        new LeaderboardRenderer().print("Leaderboard", page(0, UNBOUNDED), null, System.out);
     }
 }
@@ -0,0 +1,121 @@
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compacts a {@link Leaderboard} under a {@link RetentionPolicy} on a background
+ * thread, so the game threads never do the work.
+ * <p>
+ * Each run applies the policy and replaces the store's snapshot through a temporary
+ * file and atomic rename, as {@link Leaderboard#compact(RetentionPolicy)} describes.
+ * Runs can be scheduled at a fixed delay with {@link #start(Duration)} or requested
+ * with {@link #compactNow()}; they never overlap. Scheduled runs print their
+ * {@link CompactionReport}, and the latest report is kept. A scheduled run that
+ * fails prints the error and does not stop later runs.
+ * </p>
+ *
+ * <pre>
+ *     LeaderboardCompactor compactor = new LeaderboardCompactor(leaderboard,
+ *             RetentionPolicy.keepAll().withBestPerPlayer(10).withoutZeroScores())
+ *             .start(Duration.ofHours(1));
+ * </pre>
+ */
+public class LeaderboardCompactor implements AutoCloseable {
+
+    private final Leaderboard leaderboard;
+    private final RetentionPolicy policy;
+    private final ScheduledExecutorService executor;
+
+    private volatile CompactionReport lastReport;
+
+    /**
+     * Creates a compactor. Nothing runs until {@link #start(Duration)} or
+     * {@link #compactNow()} is called.
+     *
+     * @param leaderboard the leaderboard to compact
+     * @param policy      the entries to keep
+     */
+    public LeaderboardCompactor(Leaderboard leaderboard, RetentionPolicy policy) {
+        this.leaderboard = leaderboard;
+        this.policy = policy;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "leaderboard-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules a compaction every {@code period}, the first one period from now.
+     *
+     * @param period the delay between the end of one run and the start of the next
+     * @return this compactor
+     * @throws IllegalArgumentException if {@code period} is not positive
+     */
+    public LeaderboardCompactor start(Duration period) {
+        if (period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("The compaction period must be positive.");
+        }
+        long millis = period.toMillis();
+        executor.scheduleWithFixedDelay(this::runScheduled, millis, millis, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Requests a compaction on the background thread.
+     *
+     * @return the pending report
+     */
+    public Future<CompactionReport> compactNow() {
+        return executor.submit(this::run);
+    }
+
+    /**
+     * Returns the report of the last finished run.
+     *
+     * @return the report, or empty if no run has finished
+     */
+    public Optional<CompactionReport> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    /**
+     * Returns the policy each run applies.
+     *
+     * @return the retention policy
+     */
+    public RetentionPolicy getPolicy() {
+        return policy;
+    }
+
+    /** Runs a scheduled compaction; an exception escaping would cancel every later run. */
+    private void runScheduled() {
+        try {
+            System.out.println(run());
+        } catch (RuntimeException e) {
+            System.out.println("Error compacting leaderboard: " + e);
+        }
+    }
+
+    private CompactionReport run() {
+        CompactionReport report = leaderboard.compact(policy);
+        lastReport = report;
+        return report;
+    }
+
+    /**
+     * Cancels scheduled runs and waits for one in progress to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
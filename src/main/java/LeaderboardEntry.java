@@ -1,7 +1,8 @@
 /**
  * Represents a single entry in the leaderboard.
  * <p>
- * A {@code LeaderboardEntry} stores a player's name and final score.
+ * A {@code LeaderboardEntry} stores a player's name, final score and, when
+ * known, the time the game was played.
  * Entries are simple immutable data objects used by the {@link Leaderboard}
  * class to display and persist high-score information.
  * </p>
@@ -14,6 +15,12 @@ public class LeaderboardEntry {
     /** The player's final score. */
     private final int score;
 
+    /** When the game was played, in epoch milliseconds, or 0 if unknown. */
+    private final long timestamp;
+
+    /** The order in which the entry was submitted, used to rank equal scores. */
+    private final long sequence;
+
     /**
      * Creates a new leaderboard entry with the given player name and score.
      *
@@ -21,8 +28,33 @@ public class LeaderboardEntry {
      * @param score the score achieved by the player
      */
     public LeaderboardEntry(String name, int score) {
+        this(name, score, 0);
+    }
+
+    /**
+     * Creates a new leaderboard entry for a game played at the given time.
+     *
+     * @param name      the player's name
+     * @param score     the score achieved by the player
+     * @param timestamp when the game was played, in epoch milliseconds, or 0 if unknown
+     */
+    public LeaderboardEntry(String name, int score, long timestamp) {
+        this(name, score, timestamp, 0);
+    }
+
+    /**
+     * Creates a new leaderboard entry with the given submission sequence number.
+     *
+     * @param name      the player's name
+     * @param score     the score achieved by the player
+     * @param timestamp when the game was played, in epoch milliseconds, or 0 if unknown
+     * @param sequence  the entry's position in submission order
+     */
+    LeaderboardEntry(String name, int score, long timestamp, long sequence) {
         this.name = name;
         this.score = score;
+        this.timestamp = timestamp;
+        this.sequence = sequence;
     }
 
     /**
@@ -43,6 +75,26 @@ public class LeaderboardEntry {
         return score;
     }
 
+    /**
+     * Returns when the game was played. Entries loaded from a text leaderboard file
+     * have no timestamp.
+     *
+     * @return the time in epoch milliseconds, or 0 if unknown
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the entry's position in submission order. Earlier entries rank above
+     * later entries with the same score.
+     *
+     * @return the submission sequence number
+     */
+    long getSequence() {
+        return sequence;
+    }
+
     /**
      * Returns a human-readable representation of the entry in the format:
      * <pre>
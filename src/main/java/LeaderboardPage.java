@@ -0,0 +1,74 @@
+import java.util.List;
+
+/**
+ * One page of a leaderboard: a run of consecutive entries together with the rank
+ * of the first of them.
+ * <p>
+ * Pages are immutable snapshots. A page also serves as the cursor for the page
+ * after it; see {@link Leaderboard#pageAfter(LeaderboardPage, int)}.
+ * </p>
+ */
+public class LeaderboardPage {
+
+    private final int firstRank;
+    private final List<LeaderboardEntry> entries;
+    private final int total;
+
+    /**
+     * Creates a page.
+     *
+     * @param firstRank the 1-based rank of the first entry
+     * @param entries   the entries, best first
+     * @param total     the number of entries on the whole board
+     */
+    public LeaderboardPage(int firstRank, List<LeaderboardEntry> entries, int total) {
+        this.firstRank = firstRank;
+        this.entries = List.copyOf(entries);
+        this.total = total;
+    }
+
+    /**
+     * Returns the rank of the first entry on this page.
+     *
+     * @return the 1-based rank
+     */
+    public int getFirstRank() {
+        return firstRank;
+    }
+
+    /**
+     * Returns the entries on this page, best first.
+     *
+     * @return an unmodifiable list of entries
+     */
+    public List<LeaderboardEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns the number of entries on the whole board when the page was taken.
+     *
+     * @return the board size
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns whether this page has no entries.
+     *
+     * @return {@code true} if the page is empty
+     */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Returns the rank just after the last entry on this page.
+     *
+     * @return the 1-based rank of the next page's first entry
+     */
+    public int getNextRank() {
+        return firstRank + entries.size();
+    }
+}
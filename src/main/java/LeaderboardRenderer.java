@@ -0,0 +1,66 @@
+import java.io.PrintStream;
+
+/**
+ * Formats leaderboard pages as text.
+ * <p>
+ * Each page is formatted into one {@link StringBuilder} that is reused from page to
+ * page, and printed with a single write, rather than with one {@code println} per
+ * entry. A renderer is not thread-safe; give each thread its own.
+ * </p>
+ *
+ * <p>
+ * A page is rendered as a title line followed by one line per entry:
+ * </p>
+ * <pre>
+ *
+ * --- Leaderboard ---
+ * 1. Bob - 20
+ * 2. Alice - 14 &lt;
+ * </pre>
+ * <p>
+ * where {@code <} marks the entries of a highlighted player.
+ * </p>
+ */
+public class LeaderboardRenderer {
+
+    private final StringBuilder buffer = new StringBuilder(1024);
+
+    /**
+     * Formats a page.
+     *
+     * @param title     the heading to show above the entries
+     * @param page      the page to format
+     * @param highlight the name of the player whose entries to mark, or {@code null}
+     * @return the formatted page; its contents change on the next call
+     */
+    public CharSequence render(String title, LeaderboardPage page, String highlight) {
+        buffer.setLength(0);
+        buffer.append("\n--- ").append(title).append(" ---\n");
+        if (page.isEmpty()) {
+            buffer.append("No scores yet!\n");
+            return buffer;
+        }
+        int rank = page.getFirstRank();
+        for (LeaderboardEntry entry : page.getEntries()) {
+            buffer.append(rank++).append(". ").append(entry.getName()).append(" - ").append(entry.getScore());
+            if (entry.getName().equals(highlight)) {
+                buffer.append(" <");
+            }
+            buffer.append('\n');
+        }
+        return buffer;
+    }
+
+    /**
+     * Formats a page and prints it with a single write.
+     *
+     * @param title     the heading to show above the entries
+     * @param page      the page to print
+     * @param highlight the name of the player whose entries to mark, or {@code null}
+     * @param out       the stream to print to
+     */
+    public void print(String title, LeaderboardPage page, String highlight, PrintStream out) {
+        out.append(render(title, page, highlight));
+        out.flush();
+    }
+}
@@ -0,0 +1,425 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable, versioned copy of a leaderboard's entries, best first.
+ * <p>
+ * A snapshot holds its entries in parallel primitive arrays: the scores, sorted in
+ * descending order, and for each score the index of the player's name in a name pool
+ * shared by every snapshot of the same board, along with its timestamp and submission
+ * order. Nothing in a snapshot can change once it is published, so any number of
+ * threads can read one without locking, and nothing a reader does can affect the
+ * board.
+ * </p>
+ *
+ * <h2>Building</h2>
+ * Each snapshot is built from the previous one by a single writer, which sorts only
+ * the entries added since and merges them into the previous sorted run in one
+ * linear pass, dropping any entries removed since. The board is never re-sorted.
+ * Positions, ranks and pages are found by binary search on the sorted scores, and
+ * the merge records where each player's best entry ended up.
+ * A snapshot only reads the names it was built with, so later snapshots can append
+ * to the same pool. Names of entries that have left the board stay in the pool until
+ * it holds more than twice as many names as the board has entries, when the next
+ * merge rebuilds it from the names still in use; older snapshots keep the names they
+ * were built with.
+ */
+public final class LeaderboardSnapshot {
+
+    /** Descending score, then ascending submission order, as on the board. */
+    private static final Comparator<LeaderboardEntry> RANKING =
+            Comparator.comparingInt(LeaderboardEntry::getScore).reversed()
+                    .thenComparingLong(LeaderboardEntry::getSequence);
+
+    /** The snapshot of a board with no entries. */
+    static final LeaderboardSnapshot EMPTY = new LeaderboardSnapshot(0, 0, new int[0], new int[0], new long[0],
+            new long[0], new String[0], Map.of(), new int[0]);
+
+    private final long version;
+    private final int size;
+    private final int[] scores;
+    private final int[] nameIds;
+    private final long[] timestamps;
+    private final long[] sequences;
+    private final String[] names;
+    /** The name pool's indexes; names added after this snapshot have indexes past {@link #bestIndex}. */
+    private final Map<String, Integer> nameIndexes;
+    /** For each name index, the position of that player's best entry, or -1. */
+    private final int[] bestIndex;
+
+    private LeaderboardSnapshot(long version, int size, int[] scores, int[] nameIds, long[] timestamps,
+            long[] sequences, String[] names, Map<String, Integer> nameIndexes, int[] bestIndex) {
+        this.version = version;
+        this.size = size;
+        this.scores = scores;
+        this.nameIds = nameIds;
+        this.timestamps = timestamps;
+        this.sequences = sequences;
+        this.names = names;
+        this.nameIndexes = nameIndexes;
+        this.bestIndex = bestIndex;
+    }
+
+    /**
+     * Interns the names of a board's entries, giving each a dense index. Only the
+     * snapshot writer may add to a pool; snapshots read its indexes concurrently.
+     */
+    static final class NamePool {
+        /** The most names a pool holds beyond twice its board's size before it is rebuilt. */
+        static final int SLACK = 1024;
+
+        private Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private String[] names = new String[16];
+
+        /** Returns the number of names in the pool. */
+        int size() {
+            return ids.size();
+        }
+
+        /** Returns the index of a name, adding it to the pool if it is new. */
+        int idOf(String name) {
+            Integer id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            int next = ids.size();
+            if (next == names.length) {
+                names = Arrays.copyOf(names, next * 2);
+            }
+            names[next] = name;
+            ids.put(name, next);
+            return next;
+        }
+
+        /**
+         * Replaces the pool with one holding only the names a board uses, renumbering the
+         * board's first {@code count} name indexes in place. The old array is left to the
+         * snapshots that still read it.
+         */
+        void rebuild(int[] nameIds, int count) {
+            String[] old = names;
+            int[] remapped = new int[ids.size()];
+            Arrays.fill(remapped, -1);
+            ids = new ConcurrentHashMap<>();
+            names = new String[Math.max(16, Integer.highestOneBit(Math.max(1, count)) * 2)];
+            for (int i = 0; i < count; i++) {
+                int id = nameIds[i];
+                if (remapped[id] < 0) {
+                    remapped[id] = idOf(old[id]);
+                }
+                nameIds[i] = remapped[id];
+            }
+        }
+    }
+
+    /**
+     * The submission numbers of entries taken off a board whose removal has not reached a
+     * snapshot yet, kept in a primitive array. A lookup sorts the array once after any
+     * additions and then finds each number by binary search. Only the snapshot writer may
+     * use it.
+     */
+    static final class Removals {
+        private long[] sequences = new long[16];
+        private boolean[] taken = new boolean[16];
+        /** The slots in use, including those already taken. */
+        private int length;
+        /** The slots in use that have not been taken. */
+        private int remaining;
+        private boolean sorted = true;
+
+        /** Adds the submission number of a removed entry. */
+        void add(long sequence) {
+            if (remaining < length) {
+                // Drop the numbers already matched, keeping the rest in order
+                int kept = 0;
+                for (int i = 0; i < length; i++) {
+                    if (!taken[i]) {
+                        sequences[kept++] = sequences[i];
+                    }
+                }
+                Arrays.fill(taken, 0, length, false);
+                length = kept;
+            }
+            if (length == sequences.length) {
+                sequences = Arrays.copyOf(sequences, length * 2);
+                taken = Arrays.copyOf(taken, length * 2);
+            }
+            sequences[length++] = sequence;
+            remaining++;
+            sorted = false;
+        }
+
+        /** Returns whether every added number has been matched. */
+        boolean isEmpty() {
+            return remaining == 0;
+        }
+
+        /** Returns the number of added numbers not matched yet. */
+        int size() {
+            return remaining;
+        }
+
+        /** Matches a submission number, returning whether it was added and not yet matched. */
+        boolean remove(long sequence) {
+            if (remaining == 0) {
+                return false;
+            }
+            if (!sorted) {
+                Arrays.sort(sequences, 0, length);
+                sorted = true;
+            }
+            int at = Arrays.binarySearch(sequences, 0, length, sequence);
+            if (at < 0 || taken[at]) {
+                return false;
+            }
+            taken[at] = true;
+            remaining--;
+            return true;
+        }
+    }
+
+    /**
+     * Returns this snapshot's version. Each snapshot of a board has a higher version than
+     * the one before it.
+     *
+     * @return the version, 0 for the first empty snapshot
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the score at a position.
+     *
+     * @param index the position, 0 for the best entry
+     * @return the score
+     * @throws IndexOutOfBoundsException if the index is not below {@link #size()}
+     */
+    public int getScore(int index) {
+        return scores[checkIndex(index)];
+    }
+
+    /**
+     * Returns the name of the player at a position.
+     *
+     * @param index the position, 0 for the best entry
+     * @return the name
+     * @throws IndexOutOfBoundsException if the index is not below {@link #size()}
+     */
+    public String getName(int index) {
+        return names[nameIds[checkIndex(index)]];
+    }
+
+    /**
+     * Returns the position of a player's best entry, found in O(1) time from the
+     * position each player's best entry was given when the snapshot was built.
+     *
+     * @param name the player's name
+     * @return the position, or -1 if the player has no entry in this snapshot
+     */
+    public int indexOfBest(String name) {
+        Integer id = nameIndexes.get(name);
+        return id == null || id >= bestIndex.length ? -1 : bestIndex[id];
+    }
+
+    /**
+     * Returns when the entry at a position was played.
+     *
+     * @param index the position, 0 for the best entry
+     * @return the time in epoch milliseconds, or 0 if unknown
+     * @throws IndexOutOfBoundsException if the index is not below {@link #size()}
+     */
+    public long getTimestamp(int index) {
+        return timestamps[checkIndex(index)];
+    }
+
+    /**
+     * Returns the entry at a position.
+     *
+     * @param index the position, 0 for the best entry
+     * @return a new entry object holding the values at that position
+     * @throws IndexOutOfBoundsException if the index is not below {@link #size()}
+     */
+    public LeaderboardEntry get(int index) {
+        checkIndex(index);
+        return new LeaderboardEntry(names[nameIds[index]], scores[index], timestamps[index], sequences[index]);
+    }
+
+    /**
+     * Returns the entries as a read-only list, best first, whose elements are created as
+     * they are read.
+     *
+     * @return an unmodifiable view of this snapshot
+     */
+    public List<LeaderboardEntry> getEntries() {
+        return new Entries();
+    }
+
+    /** A read-only list view; {@link AbstractList} rejects every modification. */
+    private final class Entries extends AbstractList<LeaderboardEntry> implements RandomAccess {
+        @Override
+        public LeaderboardEntry get(int index) {
+            return LeaderboardSnapshot.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Returns the number of entries scoring more than {@code score}, by binary search.
+     *
+     * @param score the score to compare with
+     * @return the count above the score
+     */
+    public int countAbove(int score) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (scores[mid] > score) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the position {@code score} holds against this snapshot, where 1 is the top
+     * and equal scores share a position.
+     *
+     * @param score the score to rank
+     * @return the 1-based rank
+     */
+    public int getRank(int score) {
+        return countAbove(score) + 1;
+    }
+
+    /**
+     * Returns the percentage of entries that {@code score} equals or beats.
+     *
+     * @param score the score to place
+     * @return the percentile, from 0 to 100, or 0 if the snapshot is empty
+     */
+    public double getPercentile(int score) {
+        return size == 0 ? 0 : 100.0 * (size - countAbove(score)) / size;
+    }
+
+    /**
+     * Returns the position of the first entry that ranks after the given score and
+     * submission number, by binary search.
+     *
+     * @param score    the score
+     * @param sequence the submission number; {@link Long#MAX_VALUE} to skip every entry
+     *                 with this score
+     * @return the index, from 0 to {@link #size()}
+     */
+    int indexAfter(int score, long sequence) {
+        return indexAfter(scores, sequences, 0, size, score, sequence);
+    }
+
+    /** Returns the first index in {@code [from, to)} ranking after the given score and sequence, or {@code to}. */
+    private static int indexAfter(int[] scores, long[] sequences, int from, int to, int score, long sequence) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (scores[mid] > score || scores[mid] == score && sequences[mid] <= sequence) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size + " entries.");
+        }
+        return index;
+    }
+
+    /**
+     * Builds the next snapshot by merging entries added since this one into its sorted
+     * run and dropping removed entries, in O(n + k log k) for {@code k} added entries.
+     * The old entries between two added ones are found by binary search and copied in
+     * bulk, so adding a few entries to a large board costs little more than copying it.
+     *
+     * @param added   the entries placed on the board since this snapshot, in any order
+     * @param removed the submission numbers of entries taken off the board; those found
+     *                in this snapshot or in {@code added} are matched and left out
+     * @param pool    the board's name pool
+     * @return the next snapshot
+     */
+    LeaderboardSnapshot merge(Collection<LeaderboardEntry> added, Removals removed, NamePool pool) {
+        LeaderboardEntry[] batch = added.toArray(new LeaderboardEntry[0]);
+        Arrays.sort(batch, RANKING);
+
+        int capacity = size + batch.length;
+        int[] mergedScores = new int[capacity];
+        int[] mergedNames = new int[capacity];
+        long[] mergedTimestamps = new long[capacity];
+        long[] mergedSequences = new long[capacity];
+        int n = 0;
+        int i = 0;
+        for (int j = 0; i < size || j < batch.length; j++) {
+            LeaderboardEntry entry = j < batch.length ? batch[j] : null;
+            int end = entry == null ? size : indexAfter(scores, sequences, i, size, entry.getScore(),
+                    entry.getSequence());
+            if (removed.isEmpty()) {
+                int length = end - i;
+                System.arraycopy(scores, i, mergedScores, n, length);
+                System.arraycopy(nameIds, i, mergedNames, n, length);
+                System.arraycopy(timestamps, i, mergedTimestamps, n, length);
+                System.arraycopy(sequences, i, mergedSequences, n, length);
+                n += length;
+            } else {
+                for (int k = i; k < end; k++) {
+                    if (!removed.remove(sequences[k])) {
+                        mergedScores[n] = scores[k];
+                        mergedNames[n] = nameIds[k];
+                        mergedTimestamps[n] = timestamps[k];
+                        mergedSequences[n++] = sequences[k];
+                    }
+                }
+            }
+            i = end;
+            if (entry != null && (removed.isEmpty() || !removed.remove(entry.getSequence()))) {
+                mergedScores[n] = entry.getScore();
+                mergedNames[n] = pool.idOf(entry.getName());
+                mergedTimestamps[n] = entry.getTimestamp();
+                mergedSequences[n++] = entry.getSequence();
+            }
+        }
+        if (pool.size() > 2L * n + NamePool.SLACK) {
+            pool.rebuild(mergedNames, n);
+        }
+        int[] best = new int[pool.size()];
+        Arrays.fill(best, -1);
+        for (int k = n - 1; k >= 0; k--) {
+            best[mergedNames[k]] = k;
+        }
+        return new LeaderboardSnapshot(version + 1, n, mergedScores, mergedNames, mergedTimestamps,
+                mergedSequences, pool.names, pool.ids, best);
+    }
+}
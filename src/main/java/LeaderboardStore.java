@@ -0,0 +1,86 @@
+import java.util.List;
+
+/**
+ * Persistent storage behind a {@link Leaderboard}.
+ * <p>
+ * A store recovers the saved entries when the leaderboard is created, records each new
+ * entry as it is added, and is periodically handed the full sorted list of entries so it
+ * can compact whatever it has written since into a fresh snapshot.
+ * </p>
+ *
+ * <p>
+ * Like the leaderboard itself, stores treat I/O failures as non-fatal: errors are logged
+ * to the console and play continues.
+ * </p>
+ */
+public interface LeaderboardStore {
+
+    /**
+     * Loads every saved entry.
+     *
+     * @return the recovered entries, in no particular order
+     */
+    List<LeaderboardEntry> load();
+
+    /**
+     * Loads the saved entries a leaderboard keeping only its best {@code limit} entries
+     * needs. Stores that keep a sorted snapshot may skip the rest of it; by default every
+     * entry is loaded.
+     *
+     * @param limit the number of entries the leaderboard keeps
+     * @return at least the best {@code limit} saved entries, in no particular order
+     */
+    default List<LeaderboardEntry> load(int limit) {
+        return load();
+    }
+
+    /**
+     * Records a newly added entry.
+     *
+     * @param entry the entry to persist
+     */
+    void append(LeaderboardEntry entry);
+
+    /**
+     * Records a batch of newly added entries. Stores that can write the whole batch at
+     * once should override this; by default each entry is appended in turn.
+     *
+     * @param entries the entries to persist, in order
+     */
+    default void appendAll(List<LeaderboardEntry> entries) {
+        for (LeaderboardEntry entry : entries) {
+            append(entry);
+        }
+    }
+
+    /**
+     * Returns whether enough has been appended since the last snapshot that the store
+     * should be compacted.
+     *
+     * @return {@code true} if {@link #compact(List)} should be called
+     */
+    boolean needsCompaction();
+
+    /**
+     * Replaces everything saved so far with a snapshot of the given entries.
+     *
+     * @param entries every entry on the leaderboard, in display order
+     */
+    void compact(List<LeaderboardEntry> entries);
+
+    /**
+     * Waits until everything handed to the store so far has been written. Stores that
+     * write on the calling thread have nothing to wait for, which is the default.
+     */
+    default void flush() {
+    }
+
+    /**
+     * Returns the total size of the files the store keeps.
+     *
+     * @return the size in bytes, or -1 if the store cannot tell, which is the default
+     */
+    default long sizeInBytes() {
+        return -1;
+    }
+}
@@ -0,0 +1,328 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A streaming parser for leaderboard files in the {@code name,score[@timestamp]} text format.
+ * <p>
+ * The file is read in large chunks straight into a byte array and each line is
+ * parsed in place: the parser finds the last comma itself, parses the score's
+ * digits as it goes, and only allocates the name string. A large file can also be
+ * split into line-aligned byte ranges that are parsed in parallel.
+ * </p>
+ *
+ * <h2>Lines</h2>
+ * <ul>
+ *     <li>The name is everything before the <em>last</em> comma, so names may
+ *         themselves contain commas.</li>
+ *     <li>The score may be followed by {@code @} and the time the game was played in
+ *         epoch milliseconds, as {@link #format(StringBuilder, LeaderboardEntry)} writes
+ *         it; lines without one, such as those written by earlier versions, have no
+ *         timestamp. Only digits could follow the last comma before, so older lines
+ *         are never misread.</li>
+ *     <li>Lines may end in {@code \n} or {@code \r\n}; blank lines are ignored.</li>
+ *     <li>A {@code # generation N} header sets {@link #getGeneration()}. Only the first
+ *         line of a file can be a header; a later line starting with {@code #} is an
+ *         entry, as earlier versions wrote such names unchanged.</li>
+ *     <li>A name that starts with {@code #}, after any number of backslashes, is
+ *         written with one more backslash in front, so no name can be taken for a
+ *         header, and one leading backslash is dropped from such names when read.</li>
+ *     <li>Any other line that is not a name followed by a comma, an integer score and
+ *         an optional timestamp is skipped and counted in {@link #getMalformedLines()}; the rest of the file
+ *         is still read.</li>
+ * </ul>
+ */
+public final class LeaderboardTextParser {
+
+    /** The number of bytes read from the file at a time. */
+    public static final int CHUNK_SIZE = 64 * 1024;
+
+    /** The smallest byte range worth parsing on its own thread. */
+    public static final long MIN_RANGE_BYTES = 1 << 20;
+
+    private static final byte[] HEADER = "# generation ".getBytes(StandardCharsets.US_ASCII);
+
+    private final List<LeaderboardEntry> entries = new ArrayList<>();
+    private long generation;
+    private int malformedLines;
+
+    private LeaderboardTextParser() {
+    }
+
+    /**
+     * Returns the result of parsing an empty file.
+     *
+     * @return a result with no entries and generation 0
+     */
+    static LeaderboardTextParser empty() {
+        return new LeaderboardTextParser();
+    }
+
+    /**
+     * Parses a whole file on the calling thread.
+     *
+     * @param path the file to parse
+     * @return the parse result
+     * @throws IOException if the file cannot be read
+     */
+    public static LeaderboardTextParser parse(Path path) throws IOException {
+        return parse(path, 1, CHUNK_SIZE);
+    }
+
+    /**
+     * Parses a file split into up to {@code ranges} line-aligned ranges, in parallel.
+     * Files too small to be worth splitting are parsed as a single range.
+     *
+     * @param path   the file to parse
+     * @param ranges the largest number of ranges to split the file into
+     * @return the parse result, with entries in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static LeaderboardTextParser parse(Path path, int ranges) throws IOException {
+        long size = Files.size(path);
+        return parse(path, (int) Math.max(1, Math.min(ranges, size / MIN_RANGE_BYTES)), CHUNK_SIZE);
+    }
+
+    /** Parses a file split into exactly {@code ranges} ranges, reading {@code chunkSize} bytes at a time. */
+    static LeaderboardTextParser parse(Path path, int ranges, int chunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (ranges == 1) {
+                return parseRange(channel, 0, size, chunkSize);
+            }
+            LeaderboardTextParser[] parts;
+            try {
+                parts = IntStream.range(0, ranges).parallel()
+                        .mapToObj(i -> {
+                            try {
+                                return parseRange(channel, size * i / ranges, size * (i + 1) / ranges, chunkSize);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        })
+                        .toArray(LeaderboardTextParser[]::new);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            LeaderboardTextParser merged = new LeaderboardTextParser();
+            for (LeaderboardTextParser part : parts) {
+                merged.entries.addAll(part.entries);
+                merged.generation = Math.max(merged.generation, part.generation);
+                merged.malformedLines += part.malformedLines;
+            }
+            return merged;
+        }
+    }
+
+    /**
+     * Parses every line that starts within {@code [from, to)}. A line that starts before
+     * {@code from} belongs to the previous range, and the last line is read to its end
+     * even if that lies beyond {@code to}.
+     */
+    private static LeaderboardTextParser parseRange(FileChannel channel, long from, long to, int chunkSize)
+            throws IOException {
+        LeaderboardTextParser result = new LeaderboardTextParser();
+        byte[] buffer = new byte[chunkSize];
+
+        // Start one byte early so that a range starting on a line boundary skips an empty line
+        boolean skipFirst = from > 0;
+        long bufferStart = skipFirst ? from - 1 : from;
+        int filled = 0;
+        int lineStart = 0;
+        int scan = 0;
+        boolean eof = false;
+
+        while (true) {
+            for (; scan < filled; scan++) {
+                if (buffer[scan] != '\n') {
+                    continue;
+                }
+                if (skipFirst) {
+                    skipFirst = false;
+                } else if (bufferStart + lineStart >= to) {
+                    return result;
+                } else {
+                    result.parseLine(buffer, lineStart, scan, bufferStart + lineStart == 0);
+                }
+                lineStart = scan + 1;
+            }
+            if (bufferStart + lineStart >= to) {
+                return result;
+            }
+            if (eof) {
+                if (!skipFirst && lineStart < filled) {
+                    result.parseLine(buffer, lineStart, filled, bufferStart + lineStart == 0);
+                }
+                return result;
+            }
+
+            // Keep the partial line and read the next chunk after it
+            if (lineStart > 0) {
+                System.arraycopy(buffer, lineStart, buffer, 0, filled - lineStart);
+                bufferStart += lineStart;
+                filled -= lineStart;
+                scan -= lineStart;
+                lineStart = 0;
+            }
+            if (filled == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            int read = channel.read(ByteBuffer.wrap(buffer, filled, buffer.length - filled), bufferStart + filled);
+            if (read < 0) {
+                eof = true;
+            } else {
+                filled += read;
+            }
+        }
+    }
+
+    /**
+     * Parses the line in {@code line[start, end)}, excluding its line terminator; only
+     * the file's first line may be a header.
+     */
+    private void parseLine(byte[] line, int start, int end, boolean firstLine) {
+        if (end > start && line[end - 1] == '\r') {
+            end--;
+        }
+        if (end == start) {
+            return;
+        }
+        if (firstLine && line[start] == '#') {
+            long header = startsWith(line, start, end, HEADER)
+                    ? parseNumber(line, start + HEADER.length, end, Long.MAX_VALUE)
+                    : -1;
+            if (header < 0) {
+                malformedLines++;
+            } else {
+                generation = header;
+            }
+            return;
+        }
+
+        int comma = end - 1;
+        while (comma >= start && line[comma] != ',') {
+            comma--;
+        }
+        if (comma < start) {
+            malformedLines++;
+            return;
+        }
+        int at = comma + 1;
+        while (at < end && line[at] != '@') {
+            at++;
+        }
+        boolean negative = comma + 1 < at && line[comma + 1] == '-';
+        long score = parseNumber(line, negative ? comma + 2 : comma + 1, at, Integer.MAX_VALUE + (negative ? 1L : 0L));
+        long timestamp = at < end ? parseNumber(line, at + 1, end, Long.MAX_VALUE) : 0;
+        if (score < 0 || timestamp < 0) {
+            malformedLines++;
+            return;
+        }
+        int nameStart = isEscaped(line, start, comma) ? start + 1 : start;
+        String name = new String(line, nameStart, comma - nameStart, StandardCharsets.UTF_8);
+        entries.add(new LeaderboardEntry(name, (int) (negative ? -score : score), timestamp));
+    }
+
+    /**
+     * Writes an entry as one line of the text format, including its line terminator. The
+     * timestamp is left out if it is unknown, and a name starting with {@code #} is
+     * escaped so it cannot be read as a header.
+     *
+     * @param out   the text to append to
+     * @param entry the entry to write
+     * @return {@code out}
+     */
+    static StringBuilder format(StringBuilder out, LeaderboardEntry entry) {
+        String name = entry.getName();
+        int hash = 0;
+        while (hash < name.length() && name.charAt(hash) == '\\') {
+            hash++;
+        }
+        if (hash < name.length() && name.charAt(hash) == '#') {
+            out.append('\\');
+        }
+        out.append(name).append(',').append(entry.getScore());
+        if (entry.getTimestamp() != 0) {
+            out.append('@').append(entry.getTimestamp());
+        }
+        return out.append('\n');
+    }
+
+    /**
+     * Parses the decimal digits in {@code bytes[start, end)}.
+     *
+     * @return the value, or -1 if there are no digits, a non-digit, or a value above {@code max}
+     */
+    private static long parseNumber(byte[] bytes, int start, int end, long max) {
+        if (start >= end) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9 || value > (max - digit) / 10) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /** Returns whether {@code bytes[start, end)} is backslashes followed by {@code #}, at least one of each. */
+    private static boolean isEscaped(byte[] bytes, int start, int end) {
+        int i = start;
+        while (i < end && bytes[i] == '\\') {
+            i++;
+        }
+        return i > start && i < end && bytes[i] == '#';
+    }
+
+    private static boolean startsWith(byte[] bytes, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[start + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the parsed entries, in file order.
+     *
+     * @return the entries
+     */
+    public List<LeaderboardEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns the generation from the file's header line, or 0 if it has none.
+     *
+     * @return the generation
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the number of lines that were skipped because they could not be parsed.
+     *
+     * @return the malformed line count
+     */
+    public int getMalformedLines() {
+        return malformedLines;
+    }
+}
@@ -0,0 +1,145 @@
+import java.util.Arrays;
+
+/**
+ * A hash map from primitive {@code long} keys to primitive {@code double} values.
+ * <p>
+ * Entries are stored in two parallel arrays with open addressing and linear probing,
+ * so lookups and inserts never box or allocate (other than when the table grows).
+ * This keeps large memo tables, such as the one used by {@link OptimalSolver},
+ * at 16 bytes per slot.
+ * </p>
+ *
+ * <p>
+ * The key {@code 0} is reserved to mark empty slots and cannot be stored.
+ * </p>
+ */
+public class LongDoubleMap {
+
+    /** The fraction of slots that may be used before the table doubles in size. */
+    private static final double LOAD_FACTOR = 0.5;
+
+    /** The largest table, the biggest power of two an array can hold. */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    /** The largest table this map may grow to. */
+    private final int maxCapacity;
+
+    private long[] keys;
+    private double[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    /**
+     * Creates a map that can hold the given number of entries before it has to grow.
+     *
+     * @param expectedSize the number of entries expected
+     */
+    public LongDoubleMap(int expectedSize) {
+        this(expectedSize, MAX_CAPACITY);
+    }
+
+    /**
+     * Creates a map whose table never grows past {@code maxCapacity} slots.
+     *
+     * @param expectedSize the number of entries expected
+     * @param maxCapacity  the largest table, a power of two no more than {@link #MAX_CAPACITY}
+     */
+    LongDoubleMap(int expectedSize, int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+        int needed = (int) Math.min(maxCapacity, Math.max(2, (long) Math.ceil(expectedSize / LOAD_FACTOR)));
+        allocate(Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    /**
+     * Returns the value stored for a key.
+     *
+     * @param key a non-zero key
+     * @return the stored value, or {@link Double#NaN} if the key is absent
+     */
+    public double get(long key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) {
+                return values[slot];
+            }
+            if (k == 0) {
+                return Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * Stores a value for a key, replacing any previous value.
+     *
+     * @param key   a non-zero key
+     * @param value the value to store
+     * @throws IllegalArgumentException if the key is {@code 0}
+     * @throws IllegalStateException    if the key is new and the table is already as large
+     *                                  and as full as it may be
+     */
+    public void put(long key, double value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("The key 0 is reserved.");
+        }
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) {
+                values[slot] = value;
+                return;
+            }
+            if (k == 0) {
+                if (size == resizeAt && keys.length == maxCapacity) {
+                    throw new IllegalStateException("The map cannot hold more than " + resizeAt + " entries.");
+                }
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size > resizeAt) {
+                    grow();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every entry, keeping the allocated table for reuse.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        size = 0;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new double[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        allocate(keys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
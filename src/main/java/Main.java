@@ -1,3 +1,8 @@
+import java.io.File;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -11,39 +16,105 @@ import java.util.Scanner;
  */
 public class Main {
 
+    /** The number of entries shown at the top of the leaderboard after each game. */
+    private static final int TOP_ENTRIES = 10;
+
+    /** The number of entries shown either side of the player's own best entry. */
+    private static final int NEIGHBOURS = 2;
+
     /**
      * Launches the Higher or Lower game.
      * <p>
      * The method performs the following steps:
      * </p>
      * <ol>
-     *     <li>Creates a {@link Leaderboard} to store and load persistent scores.</li>
+     *     <li>Creates a {@link Leaderboard} to store and load persistent scores, and
+     *         prunes it in the background under the servers' retention policy.</li>
      *     <li>Enters a loop where a new {@link GameEngine} is created for each game.</li>
      *     <li>Runs the game and retrieves the resulting {@link Player} object.</li>
-     *     <li>Adds the player's score to the leaderboard and prints the updated standings.</li>
+     *     <li>Adds the player's score to the leaderboard and prints the top of the
+     *         standings, the player's own neighbourhood and today's best.</li>
      *     <li>Prompts the user to play again or exit the program.</li>
      * </ol>
+     * <p>
+     * If the first argument is {@code simulate}, the remaining arguments are passed
+     * to the {@link Simulator} instead and no interactive game is played, and
+     * {@code simulate-batch} runs the lockstep {@link BatchSimulator}. Likewise
+     * {@code serve} starts a {@link GameServer} for network players, and
+     * {@code serve-nio} starts the selector-based {@link NioGameServer}, and
+     * {@code migrate} converts a leaderboard file with {@link BinaryLeaderboardFile}. The
+     * {@code --hints} argument shows the odds of each guess during play.
+     * </p>
      *
-     * @param args command-line arguments (not used)
+     * @param args command-line arguments; empty for an interactive game
+     * @throws IOException if the game server cannot be started
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+
+        if (args.length > 0 && args[0].equals("simulate")) {
+            Simulator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("simulate-batch")) {
+            BatchSimulator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
 
+        if (args.length > 0 && args[0].equals("serve")) {
+            GameServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("serve-nio")) {
+            NioGameServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("migrate")) {
+            BinaryLeaderboardFile.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        boolean hints = Arrays.asList(args).contains("--hints");
         Scanner scanner = new Scanner(System.in);
-        Leaderboard leaderboard = new Leaderboard();
+        // Results are written in the background so the game never waits for the disk
+        Leaderboard leaderboard = new Leaderboard(WriteBehindLeaderboardStore.forSharedFile(new File("leaderboard.txt"),
+                GameServer.RETENTION));
+        RollingLeaderboard today = leaderboard.addWindow(RollingLeaderboard.daily(TOP_ENTRIES, Clock.systemUTC()));
+        // Pruned once at startup, off the game thread, so the files stay bounded between runs
+        LeaderboardCompactor compactor = new LeaderboardCompactor(leaderboard, GameServer.RETENTION);
+        compactor.compactNow();
+        LeaderboardRenderer renderer = new LeaderboardRenderer();
 
         while (true) {
 
             GameEngine engine = new GameEngine();
+            engine.setShowHints(hints);
             Player p = engine.run();
 
             leaderboard.addEntry(p.getName(), p.getScore());
-            leaderboard.printLeaderboard();
+            LeaderboardPage top = leaderboard.top(TOP_ENTRIES);
+            renderer.print("Leaderboard", top, p.getName(), System.out);
+            if (leaderboard.getPlayerRank(p.getName()).orElse(0) > TOP_ENTRIES) {
+                renderer.print("Your Position", leaderboard.around(p.getName(), NEIGHBOURS), p.getName(), System.out);
+            }
+            List<LeaderboardEntry> todaysBest = today.top();
+            renderer.print("Today", new LeaderboardPage(1, todaysBest, todaysBest.size()), p.getName(), System.out);
+            System.out.printf("%nYou placed #%d of %d (%.1f percentile).%n",
+                    leaderboard.getRank(p.getScore()), leaderboard.size(),
+                    leaderboard.getPercentile(p.getScore()));
+            leaderboard.getProfile(p.getName()).ifPresent(profile ->
+                    System.out.printf("%s: %d games on record, best %d, average %.1f%n", profile.getName(),
+                            profile.getGamesPlayed(), profile.getBestScore(), profile.getMeanScore()));
 
             System.out.println("\nWould you like to play again? (Y/N)");
             String choice = scanner.nextLine().trim().toLowerCase();
 
             if (!choice.startsWith("y")) {
                 System.out.println("Thanks for playing!");
+                compactor.close();
+                leaderboard.flush();
                 break;
             }
 
@@ -0,0 +1,511 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A non-blocking alternative to {@link GameServer} built on a {@code java.nio} {@link Selector}.
+ * <p>
+ * Instead of a thread per connection, a few worker threads each multiplex many sessions
+ * on their own selector. A session is a small object holding its deck, its
+ * {@link GameState} (current card, lives and score), the player's name and a short line
+ * buffer, so the memory cost of a mostly idle player is small and predictable.
+ * </p>
+ *
+ * <p>
+ * Each worker owns one direct {@link ByteBuffer} for reading and one for writing, reused
+ * for every session it serves. Commands are parsed straight out of the read buffer, and
+ * responses are assembled in the write buffer from pre-encoded byte fragments, including
+ * the cached names of all 52 cards, so a round allocates nothing. Output a client is not
+ * ready to receive is parked on its session, and the session is not read again until it
+ * has been sent.
+ * </p>
+ *
+ * <p>
+ * Finished games are handed to a separate recorder thread to be added to the
+ * {@link Leaderboard}, since a submission may wait for the store, and a worker that
+ * waited would stall every session it serves. A client that keeps sending input without
+ * reading the responses is disconnected once more than {@value #MAX_PENDING_BYTES}
+ * bytes of output are waiting for it.
+ * </p>
+ *
+ * <p>
+ * The line protocol and messages are the same as {@link GameServer}'s.
+ * </p>
+ */
+public class NioGameServer implements AutoCloseable {
+
+    /** The port used when none is given on the command line. */
+    public static final int DEFAULT_PORT = 4041;
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    /** The longest input line kept; longer lines (e.g. names) are truncated. */
+    private static final int MAX_LINE_BYTES = 64;
+
+    /** The most bytes a single response can take up. */
+    private static final int MAX_RESPONSE_BYTES = 512;
+
+    /** The most unsent output kept for one session before it is disconnected. */
+    private static final int MAX_PENDING_BYTES = 64 * 1024;
+
+    private static final byte[] WELCOME = encode("Welcome to Higher or Lower!\nWhat is your name?\n");
+    private static final byte[] GREETING = encode("Welcome ");
+    private static final byte[] YOU_HAVE = encode("! You have ");
+    private static final byte[] LIVES = encode(" lives.\n");
+    private static final byte[] CURRENT_CARD = encode("Current card: ");
+    private static final byte[] PROMPT = encode("\nHigher or Lower? (H/L)\n");
+    private static final byte[] INVALID = encode("Invalid input. Please type Higher or Lower.\nHigher or Lower? (H/L)\n");
+    private static final byte[] NEXT_CARD = encode("Next card: ");
+    private static final byte[] CORRECT = encode("\nCorrect! Score: ");
+    private static final byte[] TIE = encode("\nCards are the same. No points awarded!\n");
+    private static final byte[] WRONG = encode("\nWrong! Lives remaining: ");
+    private static final byte[] GAME_OVER = encode("Game over! Final score: ");
+    private static final byte[] PLAY_AGAIN = encode("\nWould you like to play again? (Y/N)\n");
+    private static final byte[] GOODBYE = encode("Thanks for playing!\n");
+
+    /** The encoded name of every card, indexed by card id. */
+    private static final byte[][] CARD_NAMES = new byte[Card.DECK_SIZE][];
+
+    static {
+        for (int id = 0; id < Card.DECK_SIZE; id++) {
+            CARD_NAMES[id] = encode(Card.of(id).toString());
+        }
+    }
+
+    /** What a session expects its next input line to be. */
+    private enum Phase {
+        NAME,
+        GUESS,
+        PLAY_AGAIN,
+        CLOSING
+    }
+
+    /** The state of one connected player. */
+    private static final class Session {
+        final SocketChannel channel;
+        final byte[] line = new byte[MAX_LINE_BYTES];
+        int lineLength;
+        Phase phase = Phase.NAME;
+        Deck deck;
+        GameState state;
+        String name;
+        byte[] nameBytes;
+        ByteBuffer pending;
+
+        Session(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private final ServerSocketChannel serverChannel;
+    private final Leaderboard leaderboard;
+    private final Worker[] workers;
+    private Thread acceptor;
+    private volatile boolean closing;
+
+    /** Adds finished games to the leaderboard, off the selector threads. */
+    private final ExecutorService recorder = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "nio-game-server-recorder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates a server listening on the given port.
+     *
+     * @param port        the port to listen on, or 0 for any free port
+     * @param threads     the number of selector threads serving sessions
+     * @param leaderboard the leaderboard every session reports its results to
+     * @throws IOException if the port or a selector cannot be opened
+     */
+    public NioGameServer(int port, int threads, Leaderboard leaderboard) throws IOException {
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(port));
+        this.leaderboard = leaderboard;
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(i);
+        }
+    }
+
+    /**
+     * Starts the worker threads and begins accepting connections.
+     */
+    public void start() {
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+        acceptor = new Thread(this::acceptLoop, "nio-game-server-acceptor");
+        acceptor.start();
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return the local port
+     * @throws IOException if the address cannot be read
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Stops accepting connections and closes every session, waiting for the server's
+     * threads to finish and every finished game to be added to the leaderboard.
+     * <p>
+     * Each worker closes its own sessions, including connections handed to it but not
+     * yet registered, so channels are never closed while the worker is using them.
+     * </p>
+     *
+     * @throws IOException if the server channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        closing = true;
+        serverChannel.close();
+        try {
+            if (acceptor != null) {
+                acceptor.join();
+            }
+            for (Worker worker : workers) {
+                if (worker.thread.getState() == Thread.State.NEW) {
+                    worker.shutDown();
+                } else {
+                    worker.selector.wakeup();
+                    worker.thread.join();
+                }
+            }
+            recorder.shutdown();
+            recorder.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLoop() {
+        int next = 0;
+        while (serverChannel.isOpen()) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                workers[next].add(channel);
+                next = (next + 1) % workers.length;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                System.out.println("Error accepting connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /** A selector thread and the buffers it shares between its sessions. */
+    private final class Worker {
+        final Selector selector;
+        final Thread thread;
+        final Queue<SocketChannel> incoming = new ConcurrentLinkedQueue<>();
+        final ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        Worker(int index) throws IOException {
+            selector = Selector.open();
+            thread = new Thread(this::run, "nio-game-server-" + index);
+        }
+
+        void add(SocketChannel channel) {
+            incoming.add(channel);
+            selector.wakeup();
+        }
+
+        void run() {
+            try {
+                while (!closing) {
+                    selector.select();
+                    registerIncoming();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        try {
+                            if (key.isValid() && key.isWritable()) {
+                                handleWrite(key);
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                handleRead(key);
+                            }
+                        } catch (IOException e) {
+                            closeSession(key);
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                // The server was closed
+            } finally {
+                shutDown();
+            }
+        }
+
+        /** Closes every session and pending connection, then the selector. */
+        void shutDown() {
+            if (selector.isOpen()) {
+                for (SelectionKey key : selector.keys()) {
+                    closeQuietly(key.channel());
+                }
+            }
+            SocketChannel channel;
+            while ((channel = incoming.poll()) != null) {
+                closeQuietly(channel);
+            }
+            closeQuietly(selector);
+        }
+
+        private void registerIncoming() {
+            SocketChannel channel;
+            while ((channel = incoming.poll()) != null) {
+                SelectionKey key = null;
+                try {
+                    channel.configureBlocking(false);
+                    Session session = new Session(channel);
+                    key = channel.register(selector, SelectionKey.OP_READ, session);
+                    writeBuffer.clear();
+                    startGame(session);
+                    flush(key, session);
+                } catch (IOException e) {
+                    if (key != null) {
+                        closeSession(key);
+                    } else {
+                        closeQuietly(channel);
+                    }
+                }
+            }
+        }
+
+        private void handleRead(SelectionKey key) throws IOException {
+            Session session = (Session) key.attachment();
+            readBuffer.clear();
+            if (session.channel.read(readBuffer) < 0) {
+                closeSession(key);
+                return;
+            }
+            readBuffer.flip();
+            writeBuffer.clear();
+            while (readBuffer.hasRemaining() && session.phase != Phase.CLOSING) {
+                byte b = readBuffer.get();
+                if (b == '\n') {
+                    if (writeBuffer.remaining() < MAX_RESPONSE_BYTES) {
+                        drain(session);
+                    }
+                    handleLine(session);
+                    session.lineLength = 0;
+                } else if (b != '\r' && session.lineLength < MAX_LINE_BYTES) {
+                    session.line[session.lineLength++] = b;
+                }
+            }
+            flush(key, session);
+        }
+
+        private void handleWrite(SelectionKey key) throws IOException {
+            Session session = (Session) key.attachment();
+            session.channel.write(session.pending);
+            if (!session.pending.hasRemaining()) {
+                session.pending = null;
+                afterFlush(key, session);
+            }
+        }
+
+        /** Sends the write buffer, parking whatever the client cannot take yet. */
+        private void flush(SelectionKey key, Session session) throws IOException {
+            drain(session);
+            if (session.pending != null) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else {
+                afterFlush(key, session);
+            }
+        }
+
+        private void afterFlush(SelectionKey key, Session session) throws IOException {
+            if (session.phase == Phase.CLOSING) {
+                closeSession(key);
+            } else {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        private void drain(Session session) throws IOException {
+            writeBuffer.flip();
+            if (session.pending == null) {
+                session.channel.write(writeBuffer);
+            }
+            if (writeBuffer.hasRemaining()) {
+                session.pending = append(session.pending, writeBuffer);
+            }
+            writeBuffer.clear();
+            if (session.pending != null && session.pending.remaining() > MAX_PENDING_BYTES) {
+                throw new IOException("The client is not reading its responses.");
+            }
+        }
+
+        private void handleLine(Session session) {
+            switch (session.phase) {
+                case NAME -> {
+                    session.name = new String(session.line, 0, session.lineLength, StandardCharsets.UTF_8).trim();
+                    session.nameBytes = session.name.getBytes(StandardCharsets.UTF_8);
+                    writeBuffer.put(GREETING).put(session.nameBytes).put(YOU_HAVE);
+                    putInt(session.state.getLives());
+                    writeBuffer.put(LIVES);
+                    startRound(session);
+                }
+                case GUESS -> {
+                    int answer = firstLetter(session);
+                    if (answer == 'h' || answer == 'l') {
+                        playRound(session, answer == 'h' ? Guess.HIGHER : Guess.LOWER);
+                    } else {
+                        writeBuffer.put(INVALID);
+                    }
+                }
+                case PLAY_AGAIN -> {
+                    if (firstLetter(session) == 'y') {
+                        startGame(session);
+                    } else {
+                        writeBuffer.put(GOODBYE);
+                        session.phase = Phase.CLOSING;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        private void startGame(Session session) {
+            if (session.deck == null) {
+                session.deck = new Deck();
+            } else {
+                session.deck.reset(ThreadLocalRandom.current());
+            }
+            session.state = new GameState(session.deck);
+            session.phase = Phase.NAME;
+            writeBuffer.put(WELCOME);
+        }
+
+        private void startRound(Session session) {
+            writeBuffer.put(CURRENT_CARD).put(CARD_NAMES[session.state.getCurrentCardId()]).put(PROMPT);
+            session.phase = Phase.GUESS;
+        }
+
+        private void playRound(Session session, Guess guess) {
+            GameState state = session.state;
+            Outcome outcome = state.step(guess);
+            writeBuffer.put(NEXT_CARD).put(CARD_NAMES[state.getCurrentCardId()]);
+            switch (outcome) {
+                case CORRECT -> {
+                    writeBuffer.put(CORRECT);
+                    putInt(state.getScore());
+                    writeBuffer.put((byte) '\n');
+                }
+                case TIE -> writeBuffer.put(TIE);
+                case WRONG -> {
+                    writeBuffer.put(WRONG);
+                    putInt(state.getLives());
+                    writeBuffer.put((byte) '\n');
+                }
+            }
+
+            if (!state.isOver()) {
+                startRound(session);
+                return;
+            }
+            writeBuffer.put(GAME_OVER);
+            putInt(state.getScore());
+            writeBuffer.put(PLAY_AGAIN);
+            session.phase = Phase.PLAY_AGAIN;
+            String name = session.name;
+            int score = state.getScore();
+            long playedAt = System.currentTimeMillis();
+            recorder.execute(() -> leaderboard.addEntry(name, score, playedAt));
+        }
+
+        /** Writes a non-negative number as decimal digits without allocating. */
+        private void putInt(int value) {
+            int divisor = 1;
+            while (value / divisor >= 10) {
+                divisor *= 10;
+            }
+            for (; divisor > 0; divisor /= 10) {
+                writeBuffer.put((byte) ('0' + value / divisor % 10));
+            }
+        }
+
+        private void closeSession(SelectionKey key) {
+            key.cancel();
+            closeQuietly(key.channel());
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+
+    /** Returns the first non-blank character of the session's line, lower-cased, or -1. */
+    private static int firstLetter(Session session) {
+        for (int i = 0; i < session.lineLength; i++) {
+            byte b = session.line[i];
+            if (b != ' ' && b != '\t') {
+                return Character.toLowerCase(b);
+            }
+        }
+        return -1;
+    }
+
+    /** Copies the unsent bytes of {@code source} onto the end of {@code pending}. */
+    private static ByteBuffer append(ByteBuffer pending, ByteBuffer source) {
+        if (pending == null) {
+            pending = ByteBuffer.allocate(source.remaining());
+            pending.put(source).flip();
+            return pending;
+        }
+        ByteBuffer merged = ByteBuffer.allocate(pending.remaining() + source.remaining());
+        merged.put(pending).put(source).flip();
+        return merged;
+    }
+
+    private static byte[] encode(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Runs the server until the process is stopped.
+     *
+     * @param args {@code [port] [threads]}, defaulting to {@link #DEFAULT_PORT} and
+     *             the number of available processors
+     * @throws IOException if the port cannot be opened
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Leaderboard leaderboard = new Leaderboard(WriteBehindLeaderboardStore.forSharedFile(new File("leaderboard.txt"),
+                GameServer.RETENTION));
+        new LeaderboardCompactor(leaderboard, GameServer.RETENTION).start(GameServer.COMPACTION_PERIOD);
+        NioGameServer server = new NioGameServer(port, threads, leaderboard);
+        server.start();
+        System.out.println("Higher or Lower NIO server listening on port " + server.getPort()
+                + " with " + threads + " threads");
+    }
+}
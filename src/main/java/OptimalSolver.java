@@ -0,0 +1,269 @@
+import java.util.Arrays;
+
+/**
+ * Computes the expected score of optimal play under the rules of {@link GameEngine}:
+ * a correct guess scores a point, a wrong guess costs a life, equal ranks change
+ * nothing, and the game ends when the cards or the lives run out.
+ * <p>
+ * A position is the histogram of undrawn ranks, the rank of the current card and the
+ * lives left. The solver packs it into a single {@code long} (4 bits per rank count,
+ * 4 bits for the current rank and 3 bits for the lives) and memoizes the value of every
+ * position it evaluates in a {@link LongDoubleMap}. Positions that mirror each other
+ * (Ace swapped with King, Two with Queen, and so on) have the same value, so only one
+ * of each pair is stored.
+ * </p>
+ *
+ * <h2>Modes</h2>
+ * <ul>
+ *     <li>{@link #precomputed(int, int)} solves every position reachable from a fresh deck
+ *         up front, after which every query is a table lookup. The number of positions
+ *         grows as {@code (copies + 1)^13}, so this is only practical for reduced decks
+ *         with one or two cards per rank.</li>
+ *     <li>{@link #onDemand(int)} evaluates positions as they are queried and keeps at most
+ *         a fixed number of them cached. The cache has two generations: when the current
+ *         one fills it replaces the previous one, and positions found in the previous
+ *         generation are promoted back, so recently used positions survive. This suits
+ *         positions later in a game, where few enough cards remain to solve exactly.</li>
+ * </ul>
+ */
+public class OptimalSolver {
+
+    /** The most cards of a single rank a position can hold. */
+    public static final int MAX_COPIES_PER_RANK = 15;
+
+    /** The most lives a position can hold. */
+    public static final int MAX_LIVES = 7;
+
+    /** The largest table {@link #precomputed(int, int)} will attempt to build. */
+    public static final long MAX_TABLE_STATES = 1L << 26;
+
+    private static final int RANKS = Card.RANKS_PER_SUIT;
+    private static final int COUNT_BITS = 4;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int CURRENT_SHIFT = RANKS * COUNT_BITS;
+    private static final int LIVES_SHIFT = CURRENT_SHIFT + 4;
+
+    /** The positions solved most recently. */
+    private LongDoubleMap cache;
+
+    /** The previous cache generation; always empty for a precomputed table. */
+    private LongDoubleMap previous;
+
+    /** The most positions held by one generation before they are rotated. */
+    private final int generationSize;
+
+    private OptimalSolver(int expectedStates, int generationSize) {
+        this.cache = new LongDoubleMap(expectedStates);
+        this.previous = new LongDoubleMap(generationSize == Integer.MAX_VALUE ? 1 : expectedStates);
+        this.generationSize = generationSize;
+    }
+
+    /**
+     * Creates a solver that evaluates positions when they are queried, caching at most
+     * the given number of them.
+     *
+     * @param maxCachedStates the most positions to keep across both cache generations
+     * @return a new on-demand solver
+     */
+    public static OptimalSolver onDemand(int maxCachedStates) {
+        int generationSize = Math.max(1, maxCachedStates / 2);
+        return new OptimalSolver(generationSize, generationSize);
+    }
+
+    /**
+     * Creates a solver with every position reachable from a fresh deck already solved.
+     *
+     * @param copiesPerRank the number of cards of each rank in the deck (4 for a standard deck)
+     * @param lives         the number of lives the player starts with
+     * @return a solver whose table covers every position of that game
+     * @throws IllegalArgumentException if the table would exceed {@link #MAX_TABLE_STATES}
+     */
+    public static OptimalSolver precomputed(int copiesPerRank, int lives) {
+        long states = tableSize(copiesPerRank, lives);
+        if (states > MAX_TABLE_STATES) {
+            throw new IllegalArgumentException("A table for " + copiesPerRank + " cards per rank and "
+                    + lives + " lives needs about " + states + " states; use onDemand instead.");
+        }
+        OptimalSolver solver = new OptimalSolver((int) Math.min(states, 1 << 20), Integer.MAX_VALUE);
+        solver.expectedScore(copiesPerRank, lives);
+        return solver;
+    }
+
+    /**
+     * Estimates the number of distinct positions in a game.
+     *
+     * @param copiesPerRank the number of cards of each rank in the deck
+     * @param lives         the number of lives the player starts with
+     * @return the approximate number of positions after mirror deduplication
+     */
+    public static long tableSize(int copiesPerRank, int lives) {
+        double histograms = Math.pow(copiesPerRank + 1, RANKS);
+        return (long) Math.min(Long.MAX_VALUE, histograms * RANKS * lives / 2);
+    }
+
+    /**
+     * Returns the expected score of optimal play for a fresh game, before the first card
+     * has been drawn.
+     *
+     * @param copiesPerRank the number of cards of each rank in the deck (4 for a standard deck)
+     * @param lives         the number of lives the player starts with
+     * @return the expected final score
+     */
+    public double expectedScore(int copiesPerRank, int lives) {
+        int[] remaining = new int[RANKS];
+        Arrays.fill(remaining, copiesPerRank);
+        long counts = pack(remaining, 0, lives);
+        int total = RANKS * copiesPerRank;
+
+        double sum = 0;
+        for (int rank = 0; rank < RANKS; rank++) {
+            sum += copiesPerRank * value(counts - (1L << (rank * COUNT_BITS)), total - 1, rank, lives);
+        }
+        return sum / total;
+    }
+
+    /**
+     * Returns the expected final score from a position, assuming optimal play from here on.
+     * Points already scored are not included.
+     *
+     * @param remaining   the number of undrawn cards of each rank, indexed by {@link Rank} ordinal
+     * @param currentRank the {@link Rank} ordinal of the current card
+     * @param lives       the lives the player has left
+     * @return the expected number of further points
+     * @throws IllegalArgumentException if the position cannot be represented
+     */
+    public double expectedScore(int[] remaining, int currentRank, int lives) {
+        long counts = pack(remaining, currentRank, lives);
+        return value(counts, total(remaining), currentRank, lives);
+    }
+
+    /**
+     * Returns the guess with the highest expected final score from a position.
+     *
+     * @param remaining   the number of undrawn cards of each rank, indexed by {@link Rank} ordinal
+     * @param currentRank the {@link Rank} ordinal of the current card
+     * @param lives       the lives the player has left
+     * @return the optimal guess; {@link Guess#HIGHER} when both are equally good
+     * @throws IllegalArgumentException if the position cannot be represented
+     */
+    public Guess bestGuess(int[] remaining, int currentRank, int lives) {
+        long counts = pack(remaining, currentRank, lives);
+        int total = total(remaining);
+        return expectation(counts, total, currentRank, lives, Guess.HIGHER)
+                >= expectation(counts, total, currentRank, lives, Guess.LOWER) ? Guess.HIGHER : Guess.LOWER;
+    }
+
+    /**
+     * Returns the number of positions currently held in the memo table.
+     *
+     * @return the cached position count
+     */
+    public int getCachedStates() {
+        return cache.size() + previous.size();
+    }
+
+    /** The value of a position under optimal play, memoized. */
+    private double value(long counts, int total, int current, int lives) {
+        if (total == 0 || lives == 0) {
+            return 0;
+        }
+        long key = key(counts, current, lives);
+        double cached = cache.get(key);
+        if (!Double.isNaN(cached)) {
+            return cached;
+        }
+        double best = previous.get(key);
+        if (Double.isNaN(best)) {
+            best = Math.max(
+                    expectation(counts, total, current, lives, Guess.HIGHER),
+                    expectation(counts, total, current, lives, Guess.LOWER));
+        }
+        remember(key, best);
+        return best;
+    }
+
+    /** Caches a solved position, rotating the generations if the current one is full. */
+    private void remember(long key, double value) {
+        if (cache.size() >= generationSize) {
+            LongDoubleMap full = cache;
+            cache = previous;
+            cache.clear();
+            previous = full;
+        }
+        cache.put(key, value);
+    }
+
+    /** The value of a position if the given guess is made now and optimal play follows. */
+    private double expectation(long counts, int total, int current, int lives, Guess guess) {
+        double sum = 0;
+        for (int rank = 0; rank < RANKS; rank++) {
+            int count = (int) (counts >>> (rank * COUNT_BITS) & COUNT_MASK);
+            if (count == 0) {
+                continue;
+            }
+            long rest = counts - (1L << (rank * COUNT_BITS));
+            if (rank == current) {
+                sum += count * value(rest, total - 1, rank, lives);
+            } else if ((rank > current) == (guess == Guess.HIGHER)) {
+                sum += count * (1 + value(rest, total - 1, rank, lives));
+            } else {
+                sum += count * value(rest, total - 1, rank, lives - 1);
+            }
+        }
+        return sum / total;
+    }
+
+    /** Packs a position into a key, choosing the smaller of it and its mirror image. */
+    private static long key(long counts, int current, int lives) {
+        long mirrored = 0;
+        for (int rank = 0; rank < RANKS; rank++) {
+            long count = counts >>> (rank * COUNT_BITS) & COUNT_MASK;
+            mirrored |= count << ((RANKS - 1 - rank) * COUNT_BITS);
+        }
+        long high = (long) lives << LIVES_SHIFT;
+        long key = counts | (long) current << CURRENT_SHIFT | high;
+        long mirrorKey = mirrored | (long) (RANKS - 1 - current) << CURRENT_SHIFT | high;
+        return Math.min(key, mirrorKey);
+    }
+
+    /** Validates a position and packs its rank counts. */
+    private static long pack(int[] remaining, int currentRank, int lives) {
+        if (remaining.length != RANKS || currentRank < 0 || currentRank >= RANKS
+                || lives < 0 || lives > MAX_LIVES) {
+            throw new IllegalArgumentException("Invalid position.");
+        }
+        long counts = 0;
+        for (int rank = 0; rank < RANKS; rank++) {
+            if (remaining[rank] < 0 || remaining[rank] > MAX_COPIES_PER_RANK) {
+                throw new IllegalArgumentException("Between 0 and " + MAX_COPIES_PER_RANK
+                        + " cards of each rank are supported.");
+            }
+            counts |= (long) remaining[rank] << (rank * COUNT_BITS);
+        }
+        return counts;
+    }
+
+    private static int total(int[] remaining) {
+        int total = 0;
+        for (int count : remaining) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Solves a reduced deck from the command line and prints the optimal expected score.
+     *
+     * @param args {@code [copiesPerRank] [lives]}, defaulting to 1 and 3
+     */
+    public static void main(String[] args) {
+        int copies = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        int lives = args.length > 1 ? Integer.parseInt(args[1]) : GameState.DEFAULT_LIVES;
+
+        long start = System.nanoTime();
+        OptimalSolver solver = precomputed(copies, lives);
+        double expected = solver.expectedScore(copies, lives);
+        System.out.printf("Optimal expected score (%d per rank, %d lives): %.6f%n", copies, lives, expected);
+        System.out.printf("Solved %,d positions in %.2f s%n", solver.getCachedStates(), (System.nanoTime() - start) / 1e9);
+    }
+}
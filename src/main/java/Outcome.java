@@ -0,0 +1,91 @@
+/**
+ * The result of a single round of Higher or Lower.
+ *
+ * <ul>
+ *     <li>{@link #CORRECT}: the guess was right; the player earns 1 point.</li>
+ *     <li>{@link #WRONG}: the guess was wrong; the player loses a life.</li>
+ *     <li>{@link #TIE}: both cards have equal rank; nothing changes.</li>
+ * </ul>
+ *
+ * <p>
+ * The outcome of every possible round is precomputed into a table indexed by the
+ * guess and the ids of both cards, so judging a round in {@link #judge(Guess, int, int)}
+ * is a single array lookup with no comparisons and no allocation.
+ * </p>
+ */
+public enum Outcome {
+
+    CORRECT(1, 0),
+    WRONG(0, 1),
+    TIE(0, 0);
+
+    private static final int CARDS = Card.DECK_SIZE;
+
+    /** Outcomes indexed by {@code (guess * 52 + currentCard) * 52 + nextCard}. */
+    private static final Outcome[] TABLE = new Outcome[Guess.values().length * CARDS * CARDS];
+
+    static {
+        for (Guess guess : Guess.values()) {
+            for (int current = 0; current < CARDS; current++) {
+                for (int next = 0; next < CARDS; next++) {
+                    int currentRank = Card.rankOf(current);
+                    int nextRank = Card.rankOf(next);
+                    Outcome outcome;
+                    if (nextRank == currentRank) {
+                        outcome = TIE;
+                    } else if ((nextRank > currentRank) == (guess == Guess.HIGHER)) {
+                        outcome = CORRECT;
+                    } else {
+                        outcome = WRONG;
+                    }
+                    TABLE[index(guess, current, next)] = outcome;
+                }
+            }
+        }
+    }
+
+    /** The points this outcome awards. */
+    private final int points;
+
+    /** The lives this outcome costs. */
+    private final int livesLost;
+
+    Outcome(int points, int livesLost) {
+        this.points = points;
+        this.livesLost = livesLost;
+    }
+
+    /**
+     * Judges a round.
+     *
+     * @param guess       the player's guess
+     * @param currentCard the id of the card the guess was made against
+     * @param nextCard    the id of the card that was drawn
+     * @return the outcome of the round
+     */
+    public static Outcome judge(Guess guess, int currentCard, int nextCard) {
+        return TABLE[index(guess, currentCard, nextCard)];
+    }
+
+    private static int index(Guess guess, int currentCard, int nextCard) {
+        return (guess.ordinal() * CARDS + currentCard) * CARDS + nextCard;
+    }
+
+    /**
+     * Returns the number of points this outcome awards.
+     *
+     * @return 1 for {@link #CORRECT}, otherwise 0
+     */
+    public int getPoints() {
+        return points;
+    }
+
+    /**
+     * Returns the number of lives this outcome costs.
+     *
+     * @return 1 for {@link #WRONG}, otherwise 0
+     */
+    public int getLivesLost() {
+        return livesLost;
+    }
+}
@@ -0,0 +1,306 @@
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aggregate statistics for every player who has submitted a score.
+ * <p>
+ * A leaderboard entry records a single game, so a regular player appears once per
+ * game. This class instead keeps one row per player, holding their games played,
+ * best score, total score and when they last played, and can answer a player's
+ * {@link Profile} in O(1) time.
+ * </p>
+ *
+ * <h2>Layout</h2>
+ * Each player is given a dense id the first time their name is seen, and their
+ * statistics live at that index in primitive column arrays rather than in one
+ * object per player. The columns are split into fixed-size pages, so growing them
+ * only adds a page and never moves a row another thread may be updating. The first
+ * {@code String} seen for each name is kept and
+ * returned by {@link #record(String, int, long)}, so callers can share one
+ * instance of each name instead of holding a copy per game. Keeping each
+ * player's full score history is optional.
+ *
+ * <h2>Concurrency</h2>
+ * All methods are thread-safe and each does a constant amount of work. There is no
+ * lock over the whole table: names are looked up in a concurrent map, a lock is only
+ * taken to give a new player an id, and each row is updated and read under one of a
+ * fixed set of striped locks, so games by different players are recorded in parallel.
+ */
+public class PlayerStats {
+
+    /** log2 of the number of rows in each page of the columns. */
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    /** The number of row locks; a power of two. */
+    private static final int STRIPES = 64;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+    /** Held while giving a new player an id. */
+    private final Object newPlayerLock = new Object();
+    private final boolean keepHistory;
+    private final Clock clock;
+
+    /** The column pages; entries at or past {@code players / PAGE_SIZE} may be unused. */
+    private volatile Page[] pages = new Page[16];
+    private volatile int players;
+
+    /** The columns of {@link #PAGE_SIZE} consecutive players. */
+    private static final class Page {
+        final String[] names = new String[PAGE_SIZE];
+        final int[] games = new int[PAGE_SIZE];
+        final int[] best = new int[PAGE_SIZE];
+        final long[] total = new long[PAGE_SIZE];
+        final long[] lastPlayed = new long[PAGE_SIZE];
+        final int[][] history;
+
+        Page(boolean keepHistory) {
+            history = keepHistory ? new int[PAGE_SIZE][] : null;
+        }
+    }
+
+    /**
+     * Creates an empty store that keeps aggregates only, timed by the system clock.
+     */
+    public PlayerStats() {
+        this(false, Clock.systemUTC());
+    }
+
+    /**
+     * Creates an empty store.
+     *
+     * @param keepHistory whether to keep every score each player has submitted
+     * @param clock       the clock used to time games recorded without a timestamp
+     */
+    public PlayerStats(boolean keepHistory, Clock clock) {
+        this.keepHistory = keepHistory;
+        this.clock = clock;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * A read-only view of one player's statistics at the time it was taken.
+     */
+    public static final class Profile {
+
+        private final String name;
+        private final int gamesPlayed;
+        private final int bestScore;
+        private final long totalScore;
+        private final long lastPlayed;
+        private final int[] history;
+
+        private Profile(String name, int gamesPlayed, int bestScore, long totalScore, long lastPlayed,
+                int[] history) {
+            this.name = name;
+            this.gamesPlayed = gamesPlayed;
+            this.bestScore = bestScore;
+            this.totalScore = totalScore;
+            this.lastPlayed = lastPlayed;
+            this.history = history;
+        }
+
+        /**
+         * Returns the player's name.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the number of the player's games recorded in these statistics.
+         *
+         * @return the game count
+         */
+        public int getGamesPlayed() {
+            return gamesPlayed;
+        }
+
+        /**
+         * Returns the player's best score.
+         *
+         * @return the best score
+         */
+        public int getBestScore() {
+            return bestScore;
+        }
+
+        /**
+         * Returns the sum of all the player's scores.
+         *
+         * @return the total score
+         */
+        public long getTotalScore() {
+            return totalScore;
+        }
+
+        /**
+         * Returns the player's mean score.
+         *
+         * @return the mean score
+         */
+        public double getMeanScore() {
+            return (double) totalScore / gamesPlayed;
+        }
+
+        /**
+         * Returns when the player last played.
+         *
+         * @return the time in epoch milliseconds, or 0 if unknown
+         */
+        public long getLastPlayed() {
+            return lastPlayed;
+        }
+
+        /**
+         * Returns every score the player has submitted, oldest first.
+         *
+         * @return a copy of the scores, or empty if history is not kept
+         */
+        public Optional<int[]> getHistory() {
+            return Optional.ofNullable(history).map(int[]::clone);
+        }
+    }
+
+    /**
+     * Records a game played now.
+     *
+     * @param name  the player's name
+     * @param score the game's score
+     * @return the canonical instance of {@code name}
+     */
+    public String record(String name, int score) {
+        return record(name, score, clock.millis());
+    }
+
+    /**
+     * Records a game played at the given time.
+     *
+     * @param name     the player's name
+     * @param score    the game's score
+     * @param playedAt when the game was played, in epoch milliseconds, or 0 if unknown
+     * @return the canonical instance of {@code name}
+     */
+    public String record(String name, int score, long playedAt) {
+        int id = idOf(name);
+        Page page = pages[id >>> PAGE_BITS];
+        int row = id & PAGE_MASK;
+        synchronized (locks[id & (STRIPES - 1)]) {
+            int played = page.games[row];
+            page.best[row] = played == 0 ? score : Math.max(page.best[row], score);
+            page.games[row] = played + 1;
+            page.total[row] += score;
+            page.lastPlayed[row] = Math.max(page.lastPlayed[row], playedAt);
+            if (keepHistory) {
+                int[] scores = page.history[row];
+                if (played == scores.length) {
+                    scores = page.history[row] = Arrays.copyOf(scores, scores.length * 2);
+                }
+                scores[played] = score;
+            }
+        }
+        return page.names[row];
+    }
+
+    /**
+     * Returns the id for a name, assigning the next one if the name is new. A new row is
+     * filled in before its id is published in {@code ids}, so any thread that finds the
+     * id also sees the row's page and name.
+     */
+    private int idOf(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (newPlayerLock) {
+            id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            int next = players;
+            int index = next >>> PAGE_BITS;
+            Page[] current = pages;
+            if (index == current.length) {
+                current = Arrays.copyOf(current, index * 2);
+            }
+            if (current[index] == null) {
+                current[index] = new Page(keepHistory);
+            }
+            pages = current;
+            Page page = current[index];
+            page.names[next & PAGE_MASK] = name;
+            if (keepHistory) {
+                page.history[next & PAGE_MASK] = new int[4];
+            }
+            players = next + 1;
+            ids.put(name, next);
+            return next;
+        }
+    }
+
+    /**
+     * Returns a player's statistics.
+     *
+     * @param name the player's name
+     * @return the player's profile, or empty if they have not played
+     */
+    public Optional<Profile> getProfile(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            return Optional.empty();
+        }
+        Page page = pages[id >>> PAGE_BITS];
+        int row = id & PAGE_MASK;
+        synchronized (locks[id & (STRIPES - 1)]) {
+            int played = page.games[row];
+            if (played == 0) {
+                // Another thread has given the player an id but not yet recorded the game
+                return Optional.empty();
+            }
+            int[] scores = keepHistory ? Arrays.copyOf(page.history[row], played) : null;
+            return Optional.of(new Profile(page.names[row], played, page.best[row], page.total[row],
+                    page.lastPlayed[row], scores));
+        }
+    }
+
+    /**
+     * Returns a player's best score, or {@code null} if they have not played.
+     */
+    Integer getBestScore(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            return null;
+        }
+        synchronized (locks[id & (STRIPES - 1)]) {
+            Page page = pages[id >>> PAGE_BITS];
+            return page.games[id & PAGE_MASK] == 0 ? null : page.best[id & PAGE_MASK];
+        }
+    }
+
+    /**
+     * Returns the number of distinct players recorded.
+     *
+     * @return the player count
+     */
+    public int getPlayerCount() {
+        return players;
+    }
+
+    /**
+     * Returns whether every submitted score is kept.
+     *
+     * @return {@code true} if profiles include each player's history
+     */
+    public boolean isKeepingHistory() {
+        return keepHistory;
+    }
+}
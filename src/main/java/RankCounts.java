@@ -0,0 +1,84 @@
+/**
+ * A running count of the undrawn cards of each rank in a {@link CardSource}.
+ * <p>
+ * Counts are kept cumulatively (the number of undrawn cards at or below each rank),
+ * so the number of cards above, below or equal to any rank can be read in constant
+ * time. Card sources update the counts as each card is drawn; callers only read them.
+ * </p>
+ */
+public class RankCounts {
+
+    private static final int RANKS = Card.RANKS_PER_SUIT;
+
+    /** Number of undrawn cards with a rank ordinal at or below each index. */
+    private final int[] atOrBelow = new int[RANKS];
+
+    /**
+     * Creates counts for a source holding the given number of cards of every rank.
+     *
+     * @param copiesPerRank the number of undrawn cards of each rank
+     */
+    public RankCounts(int copiesPerRank) {
+        fill(copiesPerRank);
+    }
+
+    /** Resets the counts so that every rank has the given number of undrawn cards. */
+    void fill(int copiesPerRank) {
+        for (int rank = 0; rank < RANKS; rank++) {
+            atOrBelow[rank] = (rank + 1) * copiesPerRank;
+        }
+    }
+
+    /** Records that a card of the given rank ordinal has been added to the source. */
+    void add(int rank) {
+        for (int r = rank; r < RANKS; r++) {
+            atOrBelow[r]++;
+        }
+    }
+
+    /** Records that a card of the given rank ordinal has been drawn. */
+    void remove(int rank) {
+        for (int r = rank; r < RANKS; r++) {
+            atOrBelow[r]--;
+        }
+    }
+
+    /**
+     * Returns the total number of undrawn cards.
+     *
+     * @return the number of cards left
+     */
+    public int total() {
+        return atOrBelow[RANKS - 1];
+    }
+
+    /**
+     * Returns the number of undrawn cards of the given rank.
+     *
+     * @param rank a {@link Rank} ordinal
+     * @return the number of cards of exactly that rank
+     */
+    public int countOf(int rank) {
+        return atOrBelow[rank] - countBelow(rank);
+    }
+
+    /**
+     * Returns the number of undrawn cards ranked below the given rank.
+     *
+     * @param rank a {@link Rank} ordinal
+     * @return the number of lower-ranked cards
+     */
+    public int countBelow(int rank) {
+        return rank == 0 ? 0 : atOrBelow[rank - 1];
+    }
+
+    /**
+     * Returns the number of undrawn cards ranked above the given rank.
+     *
+     * @param rank a {@link Rank} ordinal
+     * @return the number of higher-ranked cards
+     */
+    public int countAbove(int rank) {
+        return total() - atOrBelow[rank];
+    }
+}
@@ -0,0 +1,113 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rules for which leaderboard entries to keep when a leaderboard is compacted.
+ * <p>
+ * A policy can keep only each player's best {@code N} entries, drop zero scores,
+ * and cap the total number of entries. Policies are immutable; each
+ * {@code with...} method returns a new policy with one rule changed:
+ * </p>
+ * <pre>
+ *     RetentionPolicy policy = RetentionPolicy.keepAll()
+ *             .withBestPerPlayer(10)
+ *             .withoutZeroScores()
+ *             .withMaxEntries(100_000);
+ * </pre>
+ */
+public final class RetentionPolicy {
+
+    /** The value of a limit that does not apply. */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static final RetentionPolicy KEEP_ALL = new RetentionPolicy(UNLIMITED, false, UNLIMITED);
+
+    private final int bestPerPlayer;
+    private final boolean dropZeroScores;
+    private final int maxEntries;
+
+    private RetentionPolicy(int bestPerPlayer, boolean dropZeroScores, int maxEntries) {
+        if (bestPerPlayer < 1) {
+            throw new IllegalArgumentException("The entries kept per player must be at least 1.");
+        }
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("The entries kept in total must not be negative.");
+        }
+        this.bestPerPlayer = bestPerPlayer;
+        this.dropZeroScores = dropZeroScores;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns a policy that keeps every entry.
+     *
+     * @return the policy
+     */
+    public static RetentionPolicy keepAll() {
+        return KEEP_ALL;
+    }
+
+    /**
+     * Returns a copy of this policy that keeps only each player's best {@code n} entries.
+     *
+     * @param n the number of entries to keep per player, at least 1
+     * @return the new policy
+     * @throws IllegalArgumentException if {@code n} is less than 1
+     */
+    public RetentionPolicy withBestPerPlayer(int n) {
+        return new RetentionPolicy(n, dropZeroScores, maxEntries);
+    }
+
+    /**
+     * Returns a copy of this policy that drops entries scoring 0 or less.
+     *
+     * @return the new policy
+     */
+    public RetentionPolicy withoutZeroScores() {
+        return new RetentionPolicy(bestPerPlayer, true, maxEntries);
+    }
+
+    /**
+     * Returns a copy of this policy that keeps at most {@code n} entries in total.
+     *
+     * @param n the most entries to keep
+     * @return the new policy
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public RetentionPolicy withMaxEntries(int n) {
+        return new RetentionPolicy(bestPerPlayer, dropZeroScores, n);
+    }
+
+    /**
+     * Selects the entries to keep, in one pass.
+     *
+     * @param entries every entry, best first
+     * @return the entries to keep, best first
+     */
+    public List<LeaderboardEntry> apply(List<LeaderboardEntry> entries) {
+        List<LeaderboardEntry> kept = new ArrayList<>(Math.min(entries.size(), maxEntries));
+        Map<String, Integer> perPlayer = new HashMap<>();
+        for (LeaderboardEntry entry : entries) {
+            if (kept.size() >= maxEntries) {
+                break;
+            }
+            if (dropZeroScores && entry.getScore() <= 0) {
+                continue;
+            }
+            if (bestPerPlayer != UNLIMITED && perPlayer.merge(entry.getName(), 1, Integer::sum) > bestPerPlayer) {
+                continue;
+            }
+            kept.add(entry);
+        }
+        return kept;
+    }
+
+    @Override
+    public String toString() {
+        return "best " + (bestPerPlayer == UNLIMITED ? "all" : bestPerPlayer) + " per player, "
+                + (dropZeroScores ? "without" : "with") + " zero scores, at most "
+                + (maxEntries == UNLIMITED ? "unlimited" : maxEntries) + " entries";
+    }
+}
@@ -0,0 +1,176 @@
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The best {@code K} scores submitted within a rolling time window, such as the
+ * last day or the last week.
+ * <p>
+ * The window is divided into a ring of equal time buckets, each keeping only its
+ * own top {@code K} entries in a small heap. The window's top {@code K} is always
+ * among those, so a submission costs O(log K) however much history there is.
+ * </p>
+ *
+ * <h2>Rolling</h2>
+ * Each slot of the ring remembers which time bucket it holds. When the clock moves
+ * past the end of the window, a slot's bucket expires: reads skip it, and the next
+ * submission that maps to the slot replaces it wholesale, so expiring a bucket is
+ * O(1) and nothing is ever re-scanned. Entries older than the window are ignored,
+ * and entries stamped in the future are counted in the current bucket.
+ *
+ * <h2>Reads</h2>
+ * {@link #top()} merges the live buckets and caches the result until the next
+ * submission or the next bucket boundary, so serving the board to many clients
+ * costs nothing extra.
+ *
+ * <p>
+ * All methods are synchronised.
+ * </p>
+ */
+public class RollingLeaderboard {
+
+    /** Descending score, then earliest first. */
+    private static final Comparator<LeaderboardEntry> RANKING =
+            Comparator.comparingInt(LeaderboardEntry::getScore).reversed()
+                    .thenComparingLong(LeaderboardEntry::getTimestamp);
+
+    private final long bucketMillis;
+    private final int capacity;
+    private final Clock clock;
+
+    /** The time bucket each slot holds, or {@code Long.MIN_VALUE} if it has never been used. */
+    private final long[] slotBuckets;
+
+    /** Each slot's top entries, worst at the head. */
+    private final List<PriorityQueue<LeaderboardEntry>> slots;
+
+    /** The last result of {@link #top()}, or {@code null} if a submission has changed it. */
+    private List<LeaderboardEntry> cachedTop;
+
+    /** The time bucket {@link #cachedTop} was computed in. */
+    private long cachedBucket;
+
+    /**
+     * Creates a rolling leaderboard covering {@code buckets} consecutive buckets of the
+     * given width, ending with the current one.
+     *
+     * @param bucketWidth the length of time each bucket covers
+     * @param buckets     the number of buckets in the window
+     * @param capacity    the number of entries to keep
+     * @param clock       the clock that decides which buckets are current
+     * @throws IllegalArgumentException if any size is not positive
+     */
+    public RollingLeaderboard(Duration bucketWidth, int buckets, int capacity, Clock clock) {
+        if (bucketWidth.toMillis() < 1 || buckets < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Bucket width, bucket count and capacity must be positive.");
+        }
+        this.bucketMillis = bucketWidth.toMillis();
+        this.capacity = capacity;
+        this.clock = clock;
+        this.slotBuckets = new long[buckets];
+        this.slots = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            slotBuckets[i] = Long.MIN_VALUE;
+            slots.add(new PriorityQueue<>(RANKING.reversed()));
+        }
+    }
+
+    /**
+     * Creates a board of the best scores in the last 24 hours, in hourly buckets.
+     *
+     * @param capacity the number of entries to keep
+     * @param clock    the clock that decides which buckets are current
+     * @return the new board
+     */
+    public static RollingLeaderboard daily(int capacity, Clock clock) {
+        return new RollingLeaderboard(Duration.ofHours(1), 24, capacity, clock);
+    }
+
+    /**
+     * Creates a board of the best scores in the last 7 days, in daily buckets.
+     *
+     * @param capacity the number of entries to keep
+     * @param clock    the clock that decides which buckets are current
+     * @return the new board
+     */
+    public static RollingLeaderboard weekly(int capacity, Clock clock) {
+        return new RollingLeaderboard(Duration.ofDays(1), 7, capacity, clock);
+    }
+
+    /**
+     * Counts an entry towards the window it was played in.
+     *
+     * @param entry the entry, whose timestamp places it in a bucket
+     */
+    public synchronized void add(LeaderboardEntry entry) {
+        long now = currentBucket();
+        long bucket = Math.min(Math.floorDiv(entry.getTimestamp(), bucketMillis), now);
+        if (bucket <= now - slotBuckets.length) {
+            return;
+        }
+
+        int slot = (int) Math.floorMod(bucket, (long) slotBuckets.length);
+        PriorityQueue<LeaderboardEntry> top = slots.get(slot);
+        if (slotBuckets[slot] != bucket) {
+            // The slot holds an expired bucket; drop it whole
+            top = new PriorityQueue<>(RANKING.reversed());
+            slots.set(slot, top);
+            slotBuckets[slot] = bucket;
+        }
+        if (top.size() == capacity) {
+            if (RANKING.compare(entry, top.peek()) >= 0) {
+                return;
+            }
+            top.poll();
+        }
+        top.add(entry);
+        cachedTop = null;
+    }
+
+    /**
+     * Returns the best entries played within the window, best first.
+     *
+     * @return up to {@code capacity} entries; the list must not be modified
+     */
+    public synchronized List<LeaderboardEntry> top() {
+        long now = currentBucket();
+        if (cachedTop != null && cachedBucket == now) {
+            return cachedTop;
+        }
+        List<LeaderboardEntry> live = new ArrayList<>();
+        for (int slot = 0; slot < slotBuckets.length; slot++) {
+            if (slotBuckets[slot] > now - slotBuckets.length) {
+                live.addAll(slots.get(slot));
+            }
+        }
+        live.sort(RANKING);
+        cachedTop = List.copyOf(live.subList(0, Math.min(capacity, live.size())));
+        cachedBucket = now;
+        return cachedTop;
+    }
+
+    /**
+     * Returns the number of entries this board keeps.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the length of time the window covers.
+     *
+     * @return the window length
+     */
+    public Duration getWindow() {
+        return Duration.ofMillis(bucketMillis * slotBuckets.length);
+    }
+
+    private long currentBucket() {
+        return Math.floorDiv(clock.millis(), bucketMillis);
+    }
+}
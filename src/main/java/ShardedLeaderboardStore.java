@@ -0,0 +1,407 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link LeaderboardStore} that several game processes on one host can share.
+ * <p>
+ * Entries are spread over {@code N} shard files by the hash of the player's name,
+ * and each shard is guarded by an exclusive {@link FileLock} on its own lock file.
+ * A submission only locks its own shard, so writers on different shards never
+ * contend, and because every write appends to or rewrites a shard under its lock,
+ * no process can overwrite another's results. A batch from
+ * {@link #appendAll(List)}, such as a {@link WriteBehindLeaderboardStore} group,
+ * takes each shard's lock once and writes its entries for that shard together.
+ * </p>
+ *
+ * <h2>Files</h2>
+ * For a base file such as {@code leaderboard.txt}, shard {@code i} is kept in
+ * {@code leaderboard.txt.i} with its lock in {@code leaderboard.txt.i.lock}. Shards
+ * use the {@code name,score@timestamp} line format of {@link LeaderboardTextParser}.
+ *
+ * <h2>Reading</h2>
+ * {@link #load()} reads every shard afresh, so it always includes what other
+ * processes have written. Each shard is sorted into a run by descending score,
+ * which takes little work once it has been compacted, and the runs are combined
+ * with a k-way merge.
+ *
+ * <h2>Compaction</h2>
+ * {@link #compact(List)} rewrites each shard, under its lock and through a temporary
+ * file and atomic rename. Another process may have appended entries since this one
+ * loaded, which the given entries cannot include, so the shard is read again under
+ * the lock: of the entries this store has loaded or appended, only the given ones are
+ * kept, while entries it has never seen are kept alongside them. The store's
+ * {@link RetentionPolicy} is then applied to the whole shard, so entries from other
+ * processes are pruned too and the files stay bounded however many processes share
+ * them. Since a player's entries all live in one shard, a per-player limit holds
+ * exactly; a limit on the total applies to each shard on its own. Each rewrite starts
+ * with a {@code # generation N} header.
+ *
+ * <p>
+ * File locks are held per process, so locking is also coordinated between store
+ * instances in the same process that share a file.
+ * </p>
+ */
+public class ShardedLeaderboardStore implements LeaderboardStore {
+
+    /** The default number of shards. */
+    public static final int DEFAULT_SHARDS = 8;
+
+    /** Descending score; a stable sort keeps equal scores in file order. */
+    private static final Comparator<LeaderboardEntry> BY_SCORE =
+            Comparator.comparingInt(LeaderboardEntry::getScore).reversed();
+
+    /** In-process monitors for each lock file, since a {@link FileLock} only excludes other processes. */
+    private static final ConcurrentMap<Path, Object> MONITORS = new ConcurrentHashMap<>();
+
+    private static final String HEADER = "# generation ";
+
+    private final Path[] shards;
+    private final Path[] locks;
+    private final Path[] temps;
+    private final int compactionThreshold;
+    private final RetentionPolicy retention;
+
+    /**
+     * For each shard, how many times each entry this store has loaded or appended occurs
+     * in it, keyed by {@link #keyOf(LeaderboardEntry)}. Guarded by the shard's lock.
+     */
+    private final List<Map<String, Integer>> owned;
+
+    /** The number of entries this instance has appended since it last compacted. */
+    private int appended;
+
+    /**
+     * Creates a store with {@link #DEFAULT_SHARDS} shards and the default compaction threshold.
+     *
+     * @param file the base file; shards are kept next to it
+     */
+    public ShardedLeaderboardStore(File file) {
+        this(file, RetentionPolicy.keepAll());
+    }
+
+    /**
+     * Creates a store with {@link #DEFAULT_SHARDS} shards and the default compaction threshold
+     * that prunes every shard under a retention policy when it compacts.
+     *
+     * @param file      the base file; shards are kept next to it
+     * @param retention the entries to keep in each shard
+     */
+    public ShardedLeaderboardStore(File file, RetentionPolicy retention) {
+        this(file, DEFAULT_SHARDS, AppendOnlyLeaderboardStore.DEFAULT_COMPACTION_THRESHOLD, retention);
+    }
+
+    /**
+     * Creates a store. Every process sharing the files must use the same shard count.
+     *
+     * @param file                the base file; shards are kept next to it
+     * @param shardCount          the number of shard files
+     * @param compactionThreshold the number of appended entries after which to compact
+     * @throws IllegalArgumentException if {@code shardCount} is less than 1
+     */
+    public ShardedLeaderboardStore(File file, int shardCount, int compactionThreshold) {
+        this(file, shardCount, compactionThreshold, RetentionPolicy.keepAll());
+    }
+
+    /**
+     * Creates a store that prunes every shard under a retention policy when it compacts.
+     * Every process sharing the files must use the same shard count.
+     *
+     * @param file                the base file; shards are kept next to it
+     * @param shardCount          the number of shard files
+     * @param compactionThreshold the number of appended entries after which to compact
+     * @param retention           the entries to keep in each shard
+     * @throws IllegalArgumentException if {@code shardCount} is less than 1
+     */
+    public ShardedLeaderboardStore(File file, int shardCount, int compactionThreshold, RetentionPolicy retention) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("A sharded store needs at least one shard.");
+        }
+        this.shards = new Path[shardCount];
+        this.locks = new Path[shardCount];
+        this.temps = new Path[shardCount];
+        this.owned = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            owned.add(new HashMap<>());
+            shards[i] = Path.of(file.getPath() + "." + i).toAbsolutePath().normalize();
+            locks[i] = Path.of(shards[i] + ".lock");
+            temps[i] = Path.of(shards[i] + ".tmp");
+        }
+        this.compactionThreshold = compactionThreshold;
+        this.retention = retention;
+    }
+
+    /**
+     * Returns the shard a player's entries are kept in.
+     *
+     * @param name the player's name
+     * @return the shard index
+     */
+    public int shardOf(String name) {
+        return Math.floorMod(name.hashCode(), shards.length);
+    }
+
+    /**
+     * Reads every shard and merges them.
+     *
+     * @return every saved entry, best first
+     */
+    @Override
+    public List<LeaderboardEntry> load() {
+        List<List<LeaderboardEntry>> runs = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            int shard = i;
+            List<LeaderboardEntry> run = new ArrayList<>();
+            try {
+                withLock(shard, () -> {
+                    LeaderboardTextParser parsed = readShard(shard);
+                    run.addAll(parsed.getEntries());
+                    Map<String, Integer> own = owned.get(shard);
+                    own.clear();
+                    addAll(own, parsed.getEntries());
+                });
+            } catch (IOException e) {
+                System.out.println("Error reading leaderboard file.");
+            }
+            run.sort(BY_SCORE);
+            runs.add(run);
+        }
+        return merge(runs);
+    }
+
+    /**
+     * Appends one entry to its player's shard.
+     *
+     * @param entry the entry to persist
+     */
+    @Override
+    public void append(LeaderboardEntry entry) {
+        appendAll(List.of(entry));
+    }
+
+    /**
+     * Appends a batch of entries, taking each shard's lock once and writing all of the
+     * batch's entries for that shard with a single write.
+     *
+     * @param entries the entries to persist, in order
+     */
+    @Override
+    public void appendAll(List<LeaderboardEntry> entries) {
+        List<List<LeaderboardEntry>> byShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (LeaderboardEntry entry : entries) {
+            byShard.get(shardOf(entry.getName())).add(entry);
+        }
+        for (int i = 0; i < shards.length; i++) {
+            List<LeaderboardEntry> batch = byShard.get(i);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            int shard = i;
+            StringBuilder records = new StringBuilder();
+            for (LeaderboardEntry entry : batch) {
+                LeaderboardTextParser.format(records, entry);
+            }
+            byte[] bytes = records.toString().getBytes(StandardCharsets.UTF_8);
+            try {
+                withLock(shard, () -> {
+                    write(shards[shard], bytes, StandardOpenOption.APPEND);
+                    addAll(owned.get(shard), batch);
+                });
+                synchronized (this) {
+                    appended += batch.size();
+                }
+            } catch (IOException e) {
+                System.out.println("Error writing leaderboard file.");
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean needsCompaction() {
+        return appended >= compactionThreshold;
+    }
+
+    /**
+     * Rewrites each shard with the given entries that belong to it and any entries other
+     * processes have appended that this store has not seen, as far as the store's
+     * retention policy keeps them.
+     *
+     * @param entries every entry this store's leaderboard keeps
+     */
+    @Override
+    public void compact(List<LeaderboardEntry> entries) {
+        List<List<LeaderboardEntry>> kept = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            kept.add(new ArrayList<>());
+        }
+        for (LeaderboardEntry entry : entries) {
+            kept.get(shardOf(entry.getName())).add(entry);
+        }
+        for (int i = 0; i < shards.length; i++) {
+            int shard = i;
+            try {
+                withLock(shard, () -> rewrite(shard, kept.get(shard)));
+            } catch (IOException e) {
+                System.out.println("Error writing leaderboard file.");
+            }
+        }
+        synchronized (this) {
+            appended = 0;
+        }
+    }
+
+    /** Rewrites one shard while holding its lock. */
+    private void rewrite(int shard, List<LeaderboardEntry> kept) throws IOException {
+        LeaderboardTextParser parsed = readShard(shard);
+        Map<String, Integer> unmatched = new HashMap<>(owned.get(shard));
+        List<LeaderboardEntry> run = new ArrayList<>(kept);
+        for (LeaderboardEntry entry : parsed.getEntries()) {
+            // Entries this store has seen stay only if they were given; the rest are others'
+            String key = keyOf(entry);
+            Integer count = unmatched.get(key);
+            if (count == null) {
+                run.add(entry);
+            } else if (count == 1) {
+                unmatched.remove(key);
+            } else {
+                unmatched.put(key, count - 1);
+            }
+        }
+        run.sort(BY_SCORE);
+        List<LeaderboardEntry> retained = retention.apply(run);
+
+        StringBuilder contents = new StringBuilder(HEADER).append(parsed.getGeneration() + 1).append('\n');
+        for (LeaderboardEntry entry : retained) {
+            LeaderboardTextParser.format(contents, entry);
+        }
+        write(temps[shard], contents.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+        AppendOnlyLeaderboardStore.replace(temps[shard], shards[shard]);
+
+        Set<LeaderboardEntry> given = Collections.newSetFromMap(new IdentityHashMap<>());
+        given.addAll(kept);
+        Map<String, Integer> own = owned.get(shard);
+        own.clear();
+        for (LeaderboardEntry entry : retained) {
+            if (given.contains(entry)) {
+                own.merge(keyOf(entry), 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Returns the combined size of every shard.
+     *
+     * @return the size in bytes
+     */
+    @Override
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (Path shard : shards) {
+            bytes += AppendOnlyLeaderboardStore.sizeOf(shard);
+        }
+        return bytes;
+    }
+
+    /** Work done while holding a shard's lock. */
+    @FunctionalInterface
+    private interface LockedAction {
+        void run() throws IOException;
+    }
+
+    /** Runs an action while holding both the in-process monitor and the file lock of a shard. */
+    private void withLock(int shard, LockedAction action) throws IOException {
+        Object monitor = MONITORS.computeIfAbsent(locks[shard], path -> new Object());
+        synchronized (monitor) {
+            try (FileChannel channel = FileChannel.open(locks[shard],
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    action.run();
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    private LeaderboardTextParser readShard(int shard) throws IOException {
+        if (!Files.exists(shards[shard])) {
+            return LeaderboardTextParser.empty();
+        }
+        LeaderboardTextParser parsed = LeaderboardTextParser.parse(shards[shard]);
+        if (parsed.getMalformedLines() > 0) {
+            System.out.println("Skipped " + parsed.getMalformedLines() + " malformed line(s) in " + shards[shard] + ".");
+        }
+        return parsed;
+    }
+
+    /** Identifies an entry across processes by its name, score and timestamp. */
+    private static String keyOf(LeaderboardEntry entry) {
+        return entry.getScore() + "@" + entry.getTimestamp() + "," + entry.getName();
+    }
+
+    private static void addAll(Map<String, Integer> counts, List<LeaderboardEntry> entries) {
+        for (LeaderboardEntry entry : entries) {
+            counts.merge(keyOf(entry), 1, Integer::sum);
+        }
+    }
+
+    private static void write(Path path, byte[] bytes, StandardOpenOption mode) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Merges runs sorted by descending score into one sorted list. Equal scores are taken
+     * from lower-numbered runs first.
+     */
+    static List<LeaderboardEntry> merge(List<List<LeaderboardEntry>> runs) {
+        int total = 0;
+        // Each cursor is {run, position}
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, runs.size()), (a, b) -> {
+            int byScore = Integer.compare(runs.get(b[0]).get(b[1]).getScore(), runs.get(a[0]).get(a[1]).getScore());
+            return byScore != 0 ? byScore : Integer.compare(a[0], b[0]);
+        });
+        for (int i = 0; i < runs.size(); i++) {
+            total += runs.get(i).size();
+            if (!runs.get(i).isEmpty()) {
+                heads.add(new int[] {i, 0});
+            }
+        }
+
+        List<LeaderboardEntry> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<LeaderboardEntry> run = runs.get(head[0]);
+            merged.add(run.get(head[1]));
+            if (++head[1] < run.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,185 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * A casino-style shoe holding several standard 52-card decks.
+ * <p>
+ * A {@code Shoe} is used through the same {@link CardSource} contract as a {@link Deck},
+ * but it shuffles lazily: instead of shuffling every card up front, each
+ * {@link #drawCardId()} picks a random card from the undrawn part of the shoe and
+ * swaps it out of the way. A game that ends after a handful of draws therefore
+ * never pays to shuffle all of the cards.
+ * </p>
+ *
+ * <h2>Cut Card</h2>
+ * <p>
+ * A shoe may optionally be given a cut card. Once that many cards have been dealt,
+ * the next draw returns every card to the shoe before drawing, so the shoe never
+ * runs out and can be used for endless sessions. Without a cut card the shoe empties
+ * like a normal deck.
+ * </p>
+ */
+public class Shoe implements CardSource {
+
+    /** Value of {@link #getCutCard()} for a shoe without a cut card. */
+    public static final int NO_CUT_CARD = -1;
+
+    /** Card ids; the undrawn cards are those before {@link #remaining}. */
+    private final byte[] cards;
+
+    /**
+     * The generator used to pick each card as it is drawn, or {@code null} to use the
+     * drawing thread's {@link ThreadLocalRandom}.
+     */
+    private final RandomGenerator random;
+
+    /** Number of dealt cards after which the shoe is reshuffled, or {@link #NO_CUT_CARD}. */
+    private final int cutCard;
+
+    /** Number of cards that have not yet been drawn. */
+    private int remaining;
+
+    /** Running count of the undrawn cards of each rank. */
+    private final RankCounts rankCounts;
+
+    /**
+     * Constructs a shoe of the given number of decks, without a cut card. Each draw
+     * uses the {@link ThreadLocalRandom} of the thread drawing, so the shoe may be
+     * handed between threads.
+     *
+     * @param decks the number of standard decks in the shoe (e.g. 6 or 8)
+     * @throws IllegalArgumentException if {@code decks} is less than 1
+     */
+    public Shoe(int decks) {
+        this(decks, NO_CUT_CARD, null);
+    }
+
+    /**
+     * Constructs a shoe of the given number of decks, without a cut card,
+     * drawing with the given random number generator.
+     *
+     * @param decks  the number of standard decks in the shoe
+     * @param random the generator used to pick each drawn card
+     * @throws IllegalArgumentException if {@code decks} is less than 1
+     */
+    public Shoe(int decks, RandomGenerator random) {
+        this(decks, NO_CUT_CARD, random);
+    }
+
+    /**
+     * Constructs a shoe of the given number of decks with a cut card.
+     *
+     * @param decks   the number of standard decks in the shoe
+     * @param cutCard the number of cards dealt before the shoe is reshuffled,
+     *                or {@link #NO_CUT_CARD} for a shoe that empties
+     * @param random  the generator used to pick each drawn card, or {@code null} to use
+     *                the drawing thread's {@link ThreadLocalRandom}
+     * @throws IllegalArgumentException if {@code decks} is less than 1, or the cut
+     *                                  card is not within the shoe
+     */
+    public Shoe(int decks, int cutCard, RandomGenerator random) {
+        if (decks < 1) {
+            throw new IllegalArgumentException("A shoe needs at least one deck.");
+        }
+        int size = decks * Card.DECK_SIZE;
+        if (cutCard != NO_CUT_CARD && (cutCard < 1 || cutCard > size)) {
+            throw new IllegalArgumentException("The cut card must be between 1 and " + size + ".");
+        }
+        cards = new byte[size];
+        for (int i = 0; i < size; i++) {
+            cards[i] = (byte) (i % Card.DECK_SIZE);
+        }
+        this.random = random;
+        this.cutCard = cutCard;
+        this.remaining = size;
+        this.rankCounts = new RankCounts(decks * Card.DECK_SIZE / Card.RANKS_PER_SUIT);
+    }
+
+    /**
+     * Draws a random card from the undrawn part of the shoe and returns its id.
+     * <p>
+     * If the cut card has been reached, all cards are first returned to the shoe.
+     * </p>
+     *
+     * @return the id of the drawn card
+     * @throws IndexOutOfBoundsException if the shoe is empty
+     */
+    @Override
+    public int drawCardId() {
+        if (isCutCardReached()) {
+            reshuffle();
+        }
+        if (remaining == 0) {
+            throw new IndexOutOfBoundsException("The shoe is empty.");
+        }
+        RandomGenerator generator = random != null ? random : ThreadLocalRandom.current();
+        int index = generator.nextInt(remaining);
+        byte id = cards[index];
+        remaining--;
+        cards[index] = cards[remaining];
+        cards[remaining] = id;
+        rankCounts.remove(Card.rankOf(id));
+        return id;
+    }
+
+    /**
+     * Returns every dealt card to the shoe.
+     * <p>
+     * Because cards are picked at random as they are drawn, this is O(1).
+     * </p>
+     */
+    public void reshuffle() {
+        remaining = cards.length;
+        rankCounts.fill(cards.length / Card.RANKS_PER_SUIT);
+    }
+
+    /**
+     * Returns whether the cut card has been reached, meaning the next draw will
+     * reshuffle the shoe. Always {@code false} for a shoe without a cut card.
+     *
+     * @return {@code true} if the shoe is due to be reshuffled
+     */
+    public boolean isCutCardReached() {
+        return cutCard != NO_CUT_CARD && cards.length - remaining >= cutCard;
+    }
+
+    /**
+     * Returns the cut card position of this shoe.
+     *
+     * @return the number of cards dealt before a reshuffle, or {@link #NO_CUT_CARD}
+     */
+    public int getCutCard() {
+        return cutCard;
+    }
+
+    /**
+     * Checks whether the shoe has no remaining cards.
+     * A shoe with a cut card is never empty, as it reshuffles instead.
+     *
+     * @return {@code true} if no more cards can be drawn, otherwise {@code false}
+     */
+    @Override
+    public boolean isEmpty() {
+        return cutCard == NO_CUT_CARD && remaining == 0;
+    }
+
+    /**
+     * Returns the number of undrawn cards in the shoe.
+     *
+     * @return the number of remaining cards
+     */
+    @Override
+    public int getSize() {
+        return remaining;
+    }
+
+    /**
+     * Returns the running count of undrawn cards of each rank, updated on every draw.
+     *
+     * @return the live rank counts of this shoe
+     */
+    @Override
+    public RankCounts getRankCounts() {
+        return rankCounts;
+    }
+}
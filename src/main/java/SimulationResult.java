@@ -0,0 +1,153 @@
+/**
+ * The aggregated results of a batch of simulated games.
+ * <p>
+ * Results record how many games ended on each score and after each number of
+ * rounds. Partial results from different workers are combined with
+ * {@link #merge(SimulationResult)}.
+ * </p>
+ */
+public class SimulationResult {
+
+    /** Number of games that finished with each score, indexed by score. */
+    private final long[] scoreCounts;
+
+    /** Number of games that lasted exactly this many rounds, indexed by round count. */
+    private final long[] roundCounts;
+
+    private long games;
+    private long elapsedNanos;
+
+    /**
+     * Creates an empty result able to record games of up to the given length.
+     *
+     * @param maxRounds the most rounds a single game can last
+     */
+    public SimulationResult(int maxRounds) {
+        scoreCounts = new long[maxRounds + 1];
+        roundCounts = new long[maxRounds + 1];
+    }
+
+    /**
+     * Records one finished game.
+     *
+     * @param score  the game's final score
+     * @param rounds the number of rounds the game lasted
+     */
+    public void record(int score, int rounds) {
+        scoreCounts[score]++;
+        roundCounts[rounds]++;
+        games++;
+    }
+
+    /**
+     * Adds the games recorded in another result to this one.
+     *
+     * @param other a result of the same maximum length
+     * @return this result, for chaining
+     */
+    public SimulationResult merge(SimulationResult other) {
+        for (int i = 0; i < scoreCounts.length; i++) {
+            scoreCounts[i] += other.scoreCounts[i];
+            roundCounts[i] += other.roundCounts[i];
+        }
+        games += other.games;
+        return this;
+    }
+
+    /**
+     * Sets the wall-clock time taken to produce this result.
+     *
+     * @param elapsedNanos the elapsed time in nanoseconds
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the number of games recorded.
+     *
+     * @return the game count
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Returns how many games finished with the given score.
+     *
+     * @param score the score to look up
+     * @return the number of games with exactly that score
+     */
+    public long getScoreCount(int score) {
+        return score < scoreCounts.length ? scoreCounts[score] : 0;
+    }
+
+    /**
+     * Returns the mean final score.
+     *
+     * @return the average score, or 0 if no games were recorded
+     */
+    public double getMeanScore() {
+        if (games == 0) {
+            return 0;
+        }
+        double total = 0;
+        for (int score = 0; score < scoreCounts.length; score++) {
+            total += (double) score * scoreCounts[score];
+        }
+        return total / games;
+    }
+
+    /**
+     * Returns the survival curve: for each round, the fraction of games that
+     * were still being played when that round started.
+     *
+     * @return survival fractions indexed by round number, starting at round 1
+     *         (index 0 is always 1.0)
+     */
+    public double[] getSurvivalCurve() {
+        double[] survival = new double[roundCounts.length];
+        long remaining = games;
+        for (int round = 0; round < roundCounts.length; round++) {
+            survival[round] = games == 0 ? 0 : (double) remaining / games;
+            remaining -= roundCounts[round];
+        }
+        return survival;
+    }
+
+    /**
+     * Returns the simulation throughput.
+     *
+     * @return games simulated per second of wall-clock time
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Formats the results as a human-readable report.
+     *
+     * @return a multi-line report of throughput, mean score, score distribution
+     *         and survival by round
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Simulated %,d games in %.2f s (%,.0f games/sec)%n",
+                games, elapsedNanos / 1e9, getGamesPerSecond()));
+        sb.append(String.format("Mean score: %.4f%n", getMeanScore()));
+
+        sb.append("\n--- Score distribution ---\n");
+        for (int score = 0; score < scoreCounts.length; score++) {
+            if (scoreCounts[score] > 0) {
+                sb.append(String.format("%4d: %8.4f%%%n", score, 100.0 * scoreCounts[score] / games));
+            }
+        }
+
+        sb.append("\n--- Survival by round ---\n");
+        double[] survival = getSurvivalCurve();
+        for (int round = 1; round < survival.length && survival[round] > 0; round++) {
+            sb.append(String.format("%4d: %8.4f%%%n", round, 100.0 * survival[round]));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,126 @@
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Plays large numbers of complete Higher or Lower games without a console.
+ * <p>
+ * The games are split into fixed-size chunks that run in parallel on the common
+ * fork-join pool. Each chunk gets its own deck and its own {@link SplittableRandom},
+ * split from a single root generator before any work starts, so workers never share
+ * mutable state and the results for a given seed do not depend on how the chunks
+ * are scheduled.
+ * </p>
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ *     java Simulator games [strategy] [lives] [decks] [seed]
+ * </pre>
+ * where {@code strategy} is one of the {@link BotStrategy} names. The same arguments
+ * are accepted by {@code java Main simulate ...}.
+ */
+public class Simulator {
+
+    /** The number of games played by each parallel task. */
+    static final int CHUNK_SIZE = 50_000;
+
+    private final GuessStrategy strategy;
+    private final int lives;
+    private final int decks;
+    private final long seed;
+
+    /**
+     * Creates a simulator.
+     *
+     * @param strategy the strategy every simulated player uses
+     * @param lives    the number of lives each player starts with
+     * @param decks    the number of decks to play with; more than one uses a {@link Shoe}
+     * @param seed     the seed that determines every game's cards
+     * @throws IllegalArgumentException if {@code lives} or {@code decks} is less than 1
+     */
+    public Simulator(GuessStrategy strategy, int lives, int decks, long seed) {
+        if (lives < 1 || decks < 1) {
+            throw new IllegalArgumentException("Lives and decks must both be at least 1.");
+        }
+        this.strategy = strategy;
+        this.lives = lives;
+        this.decks = decks;
+        this.seed = seed;
+    }
+
+    /**
+     * Plays the given number of games across all available cores.
+     *
+     * @param games the number of games to play
+     * @return the combined results, including the elapsed time
+     */
+    public SimulationResult run(long games) {
+        int chunks = (int) ((games + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int i = 0; i < chunks; i++) {
+            randoms[i] = root.split();
+        }
+
+        long start = System.nanoTime();
+        SimulationResult result = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(i -> runChunk(Math.min(CHUNK_SIZE, games - (long) i * CHUNK_SIZE), randoms[i]))
+                .reduce(SimulationResult::merge)
+                .orElseGet(() -> new SimulationResult(maxRounds()));
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Plays one chunk of games sequentially on the calling thread, reusing a single
+     * card source for every game.
+     */
+    private SimulationResult runChunk(long games, SplittableRandom random) {
+        SimulationResult result = new SimulationResult(maxRounds());
+        Deck deck = decks == 1 ? new Deck(random) : null;
+        Shoe shoe = decks == 1 ? null : new Shoe(decks, random);
+
+        for (long game = 0; game < games; game++) {
+            CardSource source;
+            if (deck != null) {
+                if (game > 0) {
+                    deck.reset(random);
+                }
+                source = deck;
+            } else {
+                shoe.reshuffle();
+                source = shoe;
+            }
+            GameState state = new GameState(source, lives);
+            int score = state.play(strategy);
+            result.record(score, state.getRound());
+        }
+        return result;
+    }
+
+    /** The most rounds a game can last: one per card after the first. */
+    private int maxRounds() {
+        return decks * Card.DECK_SIZE - 1;
+    }
+
+    /**
+     * Runs a simulation from the command line and prints the report.
+     *
+     * @param args {@code games [strategy] [lives] [decks] [seed]}
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: Simulator games [strategy] [lives] [decks] [seed]");
+            return;
+        }
+        long games = Long.parseLong(args[0]);
+        BotStrategy strategy = args.length > 1 ? BotStrategy.valueOf(args[1].toUpperCase()) : BotStrategy.MIDPOINT;
+        int lives = args.length > 2 ? Integer.parseInt(args[2]) : GameState.DEFAULT_LIVES;
+        int decks = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        System.out.println("Strategy: " + strategy + ", lives: " + lives + ", decks: " + decks + ", seed: " + seed);
+        SimulationResult result = new Simulator(strategy, lives, decks, seed).run(games);
+        System.out.print(result.format());
+    }
+}
@@ -0,0 +1,123 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The round loop of {@link BatchSimulator} written with the incubating Vector API,
+ * judging a whole vector of games per instruction.
+ * <p>
+ * Each pass loads one vector's worth of current and next ranks from the card-major
+ * rows, widens them to ints, and compares them to get masks of the games whose next
+ * card is higher and lower. The strategy's guess table is packed into the bits of one
+ * int, so the guess for every lane is a single variable shift. Correct guesses add a
+ * point and wrong ones cost a life under masks; equal ranks are in neither mask, so
+ * they change nothing. Games that are over, or past the end of a partial batch, are
+ * masked out rather than skipped, since the rows are read whole.
+ * </p>
+ *
+ * <p>
+ * This class refers to {@code jdk.incubator.vector}, so it is only compiled by the
+ * {@code vector} Maven profile, and {@link BatchSimulator} only loads it, by name, once
+ * it has checked that the module is present. It needs at least 8 int lanes, since the
+ * narrowest byte vector has 8.
+ * </p>
+ */
+final class VectorRoundKernel implements BatchSimulator.Kernel {
+
+    /** The widest int vectors the CPU supports. */
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    /** Byte vectors with one lane per int lane, or {@code null} if there are too few int lanes. */
+    private static final VectorSpecies<Byte> BYTES = INTS.length() >= 8
+            ? VectorSpecies.of(byte.class, VectorShape.forBitSize(INTS.length() * Byte.SIZE))
+            : null;
+
+    /**
+     * Creates the kernel; {@link BatchSimulator} makes one, by reflection.
+     */
+    VectorRoundKernel() {
+    }
+
+    /**
+     * Returns whether the kernel can run on this CPU with batches of the given size.
+     *
+     * @param batchSize the number of games in a full batch
+     * @return {@code true} if a full batch is a whole number of vectors of at least 8 lanes
+     */
+    @Override
+    public boolean isSupported(int batchSize) {
+        return BYTES != null && batchSize % INTS.length() == 0;
+    }
+
+    /**
+     * Returns the number of games judged per instruction.
+     *
+     * @return the int lane count
+     */
+    @Override
+    public int lanes() {
+        return INTS.length();
+    }
+
+    /**
+     * Plays a batch of dealt games to the end, as {@link BatchSimulator} does.
+     *
+     * @param batch      the number of games in the batch
+     * @param batchSize  the length of each row of {@code ranks}
+     * @param ranks      the dealt ranks, {@code ranks[position * batchSize + game]}
+     * @param livesLeft  receives each game's remaining lives
+     * @param scores     receives each game's final score
+     * @param rounds     receives the number of rounds each game lasted
+     * @param lives      the number of lives each game starts with
+     * @param higherBits bit {@code r} set where the strategy guesses higher on rank {@code r}
+     */
+    @Override
+    public void playBatch(int batch, int batchSize, byte[] ranks, int[] livesLeft, int[] scores, int[] rounds,
+            int lives, int higherBits) {
+        for (int game = 0; game < batch; game++) {
+            livesLeft[game] = lives;
+            scores[game] = 0;
+            rounds[game] = 0;
+        }
+        int lanes = INTS.length();
+        IntVector guesses = IntVector.broadcast(INTS, higherBits);
+        boolean playing = true;
+        for (int round = 0; round < Card.DECK_SIZE - 1 && playing; round++) {
+            int current = round * batchSize;
+            int next = current + batchSize;
+            playing = false;
+            for (int game = 0; game < batch; game += lanes) {
+                IntVector left = IntVector.fromArray(INTS, livesLeft, game);
+                VectorMask<Integer> alive = left.compare(VectorOperators.GT, 0).and(INTS.indexInRange(game, batch));
+                if (!alive.anyTrue()) {
+                    continue;
+                }
+                IntVector currentRanks = widen(ranks, current + game);
+                IntVector nextRanks = widen(ranks, next + game);
+                VectorMask<Integer> up = nextRanks.compare(VectorOperators.GT, currentRanks);
+                VectorMask<Integer> down = nextRanks.compare(VectorOperators.LT, currentRanks);
+                VectorMask<Integer> guessUp = guesses.lanewise(VectorOperators.LSHR, currentRanks)
+                        .and(1).compare(VectorOperators.NE, 0);
+                VectorMask<Integer> correct = guessUp.and(up).or(guessUp.not().and(down));
+                // Equal ranks are neither correct nor wrong
+                VectorMask<Integer> wrong = up.or(down).and(correct.not());
+
+                IntVector.fromArray(INTS, scores, game).lanewise(VectorOperators.ADD, 1, correct.and(alive))
+                        .intoArray(scores, game);
+                IntVector.fromArray(INTS, rounds, game).lanewise(VectorOperators.ADD, 1, alive)
+                        .intoArray(rounds, game);
+                left = left.lanewise(VectorOperators.SUB, 1, wrong.and(alive));
+                left.intoArray(livesLeft, game);
+                playing |= left.compare(VectorOperators.GT, 0).and(alive).anyTrue();
+            }
+        }
+    }
+
+    /** Loads one vector's worth of ranks and widens them to ints. */
+    private static IntVector widen(byte[] ranks, int offset) {
+        return (IntVector) ByteVector.fromArray(BYTES, ranks, offset).convertShape(VectorOperators.B2I, INTS, 0);
+    }
+}
@@ -0,0 +1,378 @@
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A {@link LeaderboardStore} that hands writes to a background thread, so adding
+ * an entry never waits for the disk.
+ * <p>
+ * Appends and compactions are put on a bounded queue and applied to a delegate
+ * store, in order, by a single flusher thread. The flusher groups whatever has
+ * queued up, waiting at most the flush interval after the first task for more to
+ * arrive, and writes each group of entries with one
+ * {@link LeaderboardStore#appendAll(List) appendAll} call. Whether a write is also
+ * forced to the device, and how snapshots are replaced, is up to the delegate;
+ * an {@link AppendOnlyLeaderboardStore} writes snapshots to a temporary file and
+ * renames it over the old one.
+ * </p>
+ *
+ * <h2>Backpressure</h2>
+ * If the disk falls so far behind that the queue fills up, {@link #append} blocks
+ * until the flusher makes room, rather than dropping results or growing without
+ * bound.
+ *
+ * <h2>Shutdown</h2>
+ * {@link #close()} waits for everything queued to be written before it returns.
+ * {@link #closeOnShutdown()} registers a shutdown hook that does the same when the
+ * JVM exits. Appending to a closed store throws {@link IllegalStateException}.
+ * Writers queue tasks under the read side of a lock and {@code close()} marks the
+ * store closed under the write side, so every task is either queued before the
+ * flusher's stop marker or rejected; none is left behind it unwritten.
+ */
+public class WriteBehindLeaderboardStore implements LeaderboardStore, AutoCloseable {
+
+    /** The default number of queued tasks after which {@link #append} blocks. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+
+    /** The default largest number of tasks written as one group. */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    /** The default time to wait for more tasks to join a group. */
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(5);
+
+    /**
+     * A queued write: one entry to append, a snapshot to compact into, or a marker to
+     * signal once everything before it is written.
+     */
+    private static final class Task {
+        private static final Task STOP = new Task(null, null, null);
+
+        private final LeaderboardEntry entry;
+        private final List<LeaderboardEntry> snapshot;
+        private final CountDownLatch written;
+
+        private Task(LeaderboardEntry entry, List<LeaderboardEntry> snapshot, CountDownLatch written) {
+            this.entry = entry;
+            this.snapshot = snapshot;
+            this.written = written;
+        }
+    }
+
+    private final LeaderboardStore delegate;
+    private final BlockingQueue<Task> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Thread flusher;
+
+    /** Whether the delegate asked for compaction after the last group was written. */
+    private volatile boolean compactionDue;
+
+    /** Whether a compaction is queued and not yet written. */
+    private volatile boolean compactionQueued;
+
+    /** Held for reading while a task is queued, and for writing while closing. */
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+    private volatile boolean closed;
+
+    /**
+     * Creates a write-behind store with the default queue capacity, batch size and
+     * flush interval.
+     *
+     * @param delegate the store to write to
+     */
+    public WriteBehindLeaderboardStore(LeaderboardStore delegate) {
+        this(delegate, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Creates a write-behind store and starts its flusher thread.
+     *
+     * @param delegate      the store to write to
+     * @param queueCapacity the number of queued tasks after which {@link #append} blocks
+     * @param batchSize     the largest number of tasks written as one group
+     * @param flushInterval how long to wait for more tasks after the first of a group
+     * @throws IllegalArgumentException if the capacity or batch size is less than 1,
+     *                                  or the interval is negative
+     */
+    public WriteBehindLeaderboardStore(LeaderboardStore delegate, int queueCapacity, int batchSize,
+            Duration flushInterval) {
+        if (queueCapacity < 1 || batchSize < 1 || flushInterval.isNegative()) {
+            throw new IllegalArgumentException("Queue capacity and batch size must be positive.");
+        }
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.flusher = new Thread(this::flushLoop, "leaderboard-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Creates a write-behind store over an {@link AppendOnlyLeaderboardStore} for the given
+     * file, closed by a shutdown hook.
+     *
+     * @param file the snapshot file
+     * @return the new store
+     */
+    public static WriteBehindLeaderboardStore forFile(File file) {
+        return new WriteBehindLeaderboardStore(new AppendOnlyLeaderboardStore(file)).closeOnShutdown();
+    }
+
+    /**
+     * Creates a write-behind store over a {@link ShardedLeaderboardStore} for the given base
+     * file, closed by a shutdown hook. Any number of processes on the host can share it.
+     *
+     * @param file the base file; shards are kept next to it
+     * @return the new store
+     */
+    public static WriteBehindLeaderboardStore forSharedFile(File file) {
+        return forSharedFile(file, RetentionPolicy.keepAll());
+    }
+
+    /**
+     * Creates a write-behind store over a {@link ShardedLeaderboardStore} for the given base
+     * file that prunes its shards under a retention policy, closed by a shutdown hook.
+     *
+     * @param file      the base file; shards are kept next to it
+     * @param retention the entries to keep in each shard when it is compacted
+     * @return the new store
+     */
+    public static WriteBehindLeaderboardStore forSharedFile(File file, RetentionPolicy retention) {
+        return new WriteBehindLeaderboardStore(new ShardedLeaderboardStore(file, retention)).closeOnShutdown();
+    }
+
+    /**
+     * Loads every saved entry from the delegate, on the calling thread.
+     *
+     * @return the recovered entries
+     */
+    @Override
+    public List<LeaderboardEntry> load() {
+        List<LeaderboardEntry> entries = delegate.load();
+        compactionDue = delegate.needsCompaction();
+        return entries;
+    }
+
+    /**
+     * Loads the saved entries a top-{@code limit} leaderboard needs from the delegate,
+     * on the calling thread.
+     *
+     * @param limit the number of entries the leaderboard keeps
+     * @return the recovered entries
+     */
+    @Override
+    public List<LeaderboardEntry> load(int limit) {
+        List<LeaderboardEntry> entries = delegate.load(limit);
+        compactionDue = delegate.needsCompaction();
+        return entries;
+    }
+
+    /**
+     * Queues an entry to be appended, blocking only if the queue is full.
+     *
+     * @param entry the entry to persist
+     * @throws IllegalStateException if the store has been closed
+     */
+    @Override
+    public void append(LeaderboardEntry entry) {
+        enqueue(new Task(entry, null, null));
+    }
+
+    /**
+     * Returns whether the delegate asked for compaction and none is queued yet.
+     */
+    @Override
+    public boolean needsCompaction() {
+        return compactionDue && !compactionQueued;
+    }
+
+    /**
+     * Queues a compaction, which the flusher runs after every append queued before it.
+     *
+     * @param entries every entry on the leaderboard, in display order
+     * @throws IllegalStateException if the store has been closed
+     */
+    @Override
+    public void compact(List<LeaderboardEntry> entries) {
+        compactionQueued = true;
+        try {
+            enqueue(new Task(null, List.copyOf(entries), null));
+        } catch (RuntimeException e) {
+            compactionQueued = false;
+            throw e;
+        }
+    }
+
+    /**
+     * Blocks until every append and compaction queued before this call has been written.
+     * Returns at once if the store is closed, since closing writes everything queued. A
+     * flush racing {@link #close()} is either queued ahead of the stop marker or sees the
+     * store closed, and any marker still queued when the flusher stops is released.
+     */
+    @Override
+    public void flush() {
+        CountDownLatch written = new CountDownLatch(1);
+        try {
+            enqueue(new Task(null, null, written));
+        } catch (IllegalStateException e) {
+            return;
+        }
+        try {
+            written.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the size of the delegate's files, which lags behind until queued writes
+     * are {@linkplain #flush() flushed}.
+     *
+     * @return the size in bytes, or -1 if the delegate cannot tell
+     */
+    @Override
+    public long sizeInBytes() {
+        return delegate.sizeInBytes();
+    }
+
+    /**
+     * Queues a task unless the store is closed. A full queue blocks with the read lock
+     * held, which is safe because the flusher keeps draining until {@code close()} has
+     * taken the write lock and queued the stop marker.
+     */
+    private void enqueue(Task task) {
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The leaderboard store is closed.");
+            }
+            queue.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing a leaderboard write.", e);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tasks waiting to be written.
+     *
+     * @return the queue length
+     */
+    public int getPendingWrites() {
+        return queue.size();
+    }
+
+    /**
+     * Registers a shutdown hook that closes this store, so queued writes are not lost
+     * when the program exits normally.
+     *
+     * @return this store
+     */
+    public WriteBehindLeaderboardStore closeOnShutdown() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "leaderboard-flush-on-exit"));
+        return this;
+    }
+
+    /**
+     * Stops accepting writes and waits for the flusher to write everything queued.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            queue.put(Task.STOP);
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flushLoop() {
+        List<Task> group = new ArrayList<>(batchSize);
+        List<LeaderboardEntry> entries = new ArrayList<>(batchSize);
+        boolean stopping = false;
+        try {
+            while (!stopping) {
+                try {
+                    group.add(queue.take());
+                    long deadline = System.nanoTime() + flushIntervalNanos;
+                    while (group.size() < batchSize) {
+                        queue.drainTo(group, batchSize - group.size());
+                        long remaining = deadline - System.nanoTime();
+                        if (group.size() >= batchSize || remaining <= 0) {
+                            break;
+                        }
+                        Task next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        group.add(next);
+                    }
+                } catch (InterruptedException e) {
+                    // Only close() stops the flusher, so that nothing queued is lost
+                    continue;
+                }
+
+                try {
+                    for (Task task : group) {
+                        if (task == Task.STOP) {
+                            stopping = true;
+                        } else if (task.entry != null) {
+                            entries.add(task.entry);
+                        } else if (task.written != null) {
+                            delegate.appendAll(entries);
+                            entries.clear();
+                            task.written.countDown();
+                        } else {
+                            delegate.appendAll(entries);
+                            entries.clear();
+                            compactionQueued = false;
+                            delegate.compact(task.snapshot);
+                        }
+                    }
+                    delegate.appendAll(entries);
+                    compactionDue = delegate.needsCompaction();
+                } catch (RuntimeException e) {
+                    System.out.println("Error writing leaderboard file.");
+                } finally {
+                    // Never leave a flush waiting, even if a write failed
+                    for (Task task : group) {
+                        if (task.written != null) {
+                            task.written.countDown();
+                        }
+                    }
+                    entries.clear();
+                    group.clear();
+                }
+            }
+        } finally {
+            // Release any flush still waiting, so that none can hang once the flusher has stopped
+            List<Task> left = new ArrayList<>();
+            queue.drainTo(left);
+            for (Task task : left) {
+                if (task.written != null) {
+                    task.written.countDown();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AppendOnlyLeaderboardStoreTest {
+
+    private final File snapshot = new File("test_store_leaderboard.txt");
+    private final File log = new File("test_store_leaderboard.txt.log");
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        Files.deleteIfExists(snapshot.toPath());
+        Files.deleteIfExists(log.toPath());
+    }
+
+    private static void write(File file, String contents) throws Exception {
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testAppendWritesOneRecordPerEntry() throws Exception {
+        AppendOnlyLeaderboardStore store = new AppendOnlyLeaderboardStore(snapshot);
+        store.load();
+
+        store.append(new LeaderboardEntry("Alice", 4));
+        store.append(new LeaderboardEntry("Bob", 3));
+
+        assertFalse(snapshot.exists(), "Appending should not rewrite the snapshot.");
+        assertEquals(List.of("# generation 0", "Alice,4", "Bob,3"), Files.readAllLines(log.toPath()));
+        assertEquals(2, store.getLogEntries());
+    }
+
+    @Test
+    void testTimestampsSurviveReloadFromLogAndSnapshot() {
+        Leaderboard lb = new Leaderboard(new AppendOnlyLeaderboardStore(snapshot, 2));
+        lb.addEntry("Alice", 4, 1_000);
+        lb.addEntry("Bob", 3, 2_000);
+        lb.addEntry("Carol", 5, 3_000);
+        lb.flush();
+
+        List<LeaderboardEntry> loaded = new AppendOnlyLeaderboardStore(snapshot).load();
+
+        assertEquals(3, loaded.size());
+        for (LeaderboardEntry entry : loaded) {
+            long expected = switch (entry.getName()) {
+                case "Alice" -> 1_000;
+                case "Bob" -> 2_000;
+                default -> 3_000;
+            };
+            assertEquals(expected, entry.getTimestamp(), entry.getName());
+        }
+    }
+
+    @Test
+    void testLoadMergesSnapshotWithLogTail() throws Exception {
+        write(snapshot, "Alice,4\nBob,3\n");
+        write(log, "Carol,9\n");
+
+        List<LeaderboardEntry> entries = new AppendOnlyLeaderboardStore(snapshot).load();
+
+        assertEquals(3, entries.size());
+        assertEquals("Carol", entries.get(2).getName());
+    }
+
+    @Test
+    void testUnreadableSnapshotIsNeverCompactedOver() throws Exception {
+        // A directory exists but cannot be read as a file
+        Files.createDirectory(snapshot.toPath());
+        write(log, "# generation 0\nAlice,4\n");
+        AppendOnlyLeaderboardStore store = new AppendOnlyLeaderboardStore(snapshot, 1);
+
+        List<LeaderboardEntry> entries = store.load();
+        store.append(new LeaderboardEntry("Bob", 7));
+        store.compact(List.of(new LeaderboardEntry("Bob", 7)));
+
+        assertEquals(1, entries.size());
+        assertFalse(store.needsCompaction());
+        assertTrue(snapshot.isDirectory(), "The unreadable snapshot should not be replaced.");
+        assertEquals(List.of("# generation 0", "Alice,4", "Bob,7"), Files.readAllLines(log.toPath()));
+    }
+
+    @Test
+    void testCompactionReplacesSnapshotAndClearsLog() throws Exception {
+        AppendOnlyLeaderboardStore store = new AppendOnlyLeaderboardStore(snapshot, 2);
+        store.load();
+        store.append(new LeaderboardEntry("Alice", 4));
+        assertFalse(store.needsCompaction());
+        store.append(new LeaderboardEntry("Bob", 7));
+        assertTrue(store.needsCompaction());
+
+        store.compact(List.of(new LeaderboardEntry("Bob", 7), new LeaderboardEntry("Alice", 4)));
+
+        assertFalse(log.exists());
+        assertEquals(List.of("# generation 1", "Bob,7", "Alice,4"), Files.readAllLines(snapshot.toPath()));
+        assertEquals(2, new AppendOnlyLeaderboardStore(snapshot).load().size());
+    }
+
+    @Test
+    void testStaleLogFromInterruptedCompactionIsIgnored() throws Exception {
+        // The snapshot was replaced, but the process died before the old log was deleted
+        write(snapshot, "# generation 3\nBob,7\nAlice,4\n");
+        write(log, "# generation 2\nAlice,4\n");
+
+        List<LeaderboardEntry> entries = new AppendOnlyLeaderboardStore(snapshot).load();
+
+        assertEquals(2, entries.size());
+        assertFalse(log.exists(), "The stale log should be discarded.");
+    }
+
+    @Test
+    void testMalformedLineDoesNotDropLaterEntries() throws Exception {
+        write(snapshot, "Alice,10\ngarbage\nBob,20\n");
+
+        List<LeaderboardEntry> entries = new AppendOnlyLeaderboardStore(snapshot).load();
+
+        assertEquals(2, entries.size());
+        assertEquals("Bob", entries.get(1).getName());
+    }
+}
@@ -0,0 +1,126 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class BatchSimulatorTest {
+
+    private static void assertSameResults(SimulationResult expected, SimulationResult actual) {
+        assertEquals(expected.getGames(), actual.getGames());
+        for (int score = 0; score < Card.DECK_SIZE; score++) {
+            assertEquals(expected.getScoreCount(score), actual.getScoreCount(score), "Games scoring " + score);
+        }
+        assertArrayEquals(expected.getSurvivalCurve(), actual.getSurvivalCurve());
+    }
+
+    @Test
+    void testMatchesSimulatorForEveryRankStrategy() {
+        for (BotStrategy strategy : new BotStrategy[] {BotStrategy.ALWAYS_HIGHER, BotStrategy.ALWAYS_LOWER,
+                BotStrategy.MIDPOINT}) {
+            for (int lives : new int[] {1, 3, 60}) {
+                // Spans two chunks and ends with a partial batch
+                SimulationResult expected = new Simulator(strategy, lives, 1, 11L).run(51_234);
+                SimulationResult actual = new BatchSimulator(BatchSimulator.guessTable(strategy), lives, 11L).run(51_234);
+
+                assertSameResults(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    void testMatchesGameStateOnTheSameDeals() {
+        // The first chunk's generator is the first split of the seed
+        SplittableRandom random = new SplittableRandom(5L).split();
+        Deck deck = new Deck(random);
+        SimulationResult expected = new SimulationResult(Card.DECK_SIZE - 1);
+        for (int game = 0; game < 2_000; game++) {
+            if (game > 0) {
+                deck.reset(random);
+            }
+            GameState state = new GameState(deck, 2);
+            expected.record(state.play(BotStrategy.MIDPOINT), state.getRound());
+        }
+
+        SimulationResult actual = new BatchSimulator(BatchSimulator.guessTable(BotStrategy.MIDPOINT), 2, 5L)
+                .run(2_000);
+
+        assertSameResults(expected, actual);
+    }
+
+    @Test
+    void testVectorKernelMatchesScalarKernel() {
+        assumeTrue(BatchSimulator.isVectorAvailable(), "The Vector API is not available.");
+        for (BotStrategy strategy : new BotStrategy[] {BotStrategy.ALWAYS_HIGHER, BotStrategy.ALWAYS_LOWER,
+                BotStrategy.MIDPOINT}) {
+            for (int lives : new int[] {1, 3, 60}) {
+                BatchSimulator scalar = new BatchSimulator(BatchSimulator.guessTable(strategy), lives, 13L);
+                scalar.setVectorized(false);
+                BatchSimulator vector = new BatchSimulator(BatchSimulator.guessTable(strategy), lives, 13L);
+                vector.setVectorized(true);
+                assertTrue(vector.isVectorized());
+
+                assertSameResults(scalar.run(51_234), vector.run(51_234));
+            }
+        }
+    }
+
+    @Test
+    void testVectorKernelScoresNothingForEqualRanks() {
+        assumeTrue(BatchSimulator.isVectorAvailable(), "The Vector API is not available.");
+        int size = BatchSimulator.BATCH_SIZE;
+        byte[] ranks = new byte[Card.DECK_SIZE * size];
+        for (int position = 0; position < Card.DECK_SIZE; position++) {
+            // Game 0 only ever sees fives; game 1 climbs through the ranks and wraps three times
+            ranks[position * size] = 5;
+            ranks[position * size + 1] = (byte) (position % Card.RANKS_PER_SUIT);
+        }
+        int[] livesLeft = new int[size];
+        int[] scores = new int[size];
+        int[] rounds = new int[size];
+
+        BatchSimulator.vectorKernel().playBatch(2, size, ranks, livesLeft, scores, rounds, 3, (1 << Card.RANKS_PER_SUIT) - 1);
+
+        assertEquals(0, scores[0]);
+        assertEquals(3, livesLeft[0]);
+        assertEquals(Card.DECK_SIZE - 1, rounds[0]);
+        assertEquals(36, scores[1]);
+        assertEquals(0, livesLeft[1]);
+        assertEquals(39, rounds[1]);
+    }
+
+    @Test
+    void testScalarIsTheDefault() {
+        BatchSimulator simulator = new BatchSimulator(BatchSimulator.guessTable(BotStrategy.MIDPOINT), 3, 1L);
+
+        assertFalse(simulator.isVectorized());
+    }
+
+    @Test
+    void testScalarCanBeForced() {
+        BatchSimulator simulator = new BatchSimulator(BatchSimulator.guessTable(BotStrategy.MIDPOINT), 3, 1L);
+
+        simulator.setVectorized(false);
+
+        assertFalse(simulator.isVectorized());
+    }
+
+    @Test
+    void testGuessTablesFollowTheStrategies() {
+        Guess[] midpoint = BatchSimulator.guessTable(BotStrategy.MIDPOINT);
+
+        assertEquals(Guess.HIGHER, midpoint[Rank.TWO.ordinal()]);
+        assertEquals(Guess.LOWER, midpoint[Rank.SEVEN.ordinal()]);
+        assertEquals(Guess.HIGHER, midpoint[Rank.ACE.ordinal()]);
+        assertEquals(Guess.LOWER, midpoint[Rank.KING.ordinal()]);
+        assertThrows(IllegalArgumentException.class, () -> BatchSimulator.guessTable(BotStrategy.COUNTING));
+    }
+
+    @Test
+    void testInvalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchSimulator(new Guess[3], 3, 1L));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BatchSimulator(BatchSimulator.guessTable(BotStrategy.MIDPOINT), 0, 1L));
+    }
+}
@@ -0,0 +1,174 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryLeaderboardFileTest {
+
+    private final File snapshot = new File("test_binary_leaderboard.bin");
+    private final File log = new File("test_binary_leaderboard.bin.log");
+    private final File text = new File("test_binary_leaderboard.txt");
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        Files.deleteIfExists(snapshot.toPath());
+        Files.deleteIfExists(log.toPath());
+        Files.deleteIfExists(text.toPath());
+    }
+
+    @Test
+    void testWriteThenReadRoundTrips() throws Exception {
+        BinaryLeaderboardFile.write(snapshot.toPath(), 7, List.of(
+                new LeaderboardEntry("Zoë", 30),
+                new LeaderboardEntry("Bob", 20),
+                new LeaderboardEntry("", 10)));
+
+        BinaryLeaderboardFile file = BinaryLeaderboardFile.open(snapshot.toPath());
+
+        assertEquals(7, file.getGeneration());
+        assertEquals(3, file.size());
+        assertEquals("Zoë", file.getName(0));
+        assertEquals(30, file.getScore(0));
+        assertEquals("", file.getName(2));
+        assertEquals(10, file.getScore(2));
+    }
+
+    @Test
+    void testReadTopStopsAtN() throws Exception {
+        BinaryLeaderboardFile.write(snapshot.toPath(), 0, List.of(
+                new LeaderboardEntry("A", 3),
+                new LeaderboardEntry("B", 2),
+                new LeaderboardEntry("C", 1)));
+
+        BinaryLeaderboardFile file = BinaryLeaderboardFile.open(snapshot.toPath());
+        List<LeaderboardEntry> top = file.readTop(2);
+
+        assertEquals(2, top.size());
+        assertEquals("B", top.get(1).getName());
+        assertEquals(3, file.readTop(10).size());
+    }
+
+    @Test
+    void testOpenRejectsTextFile() throws Exception {
+        Files.writeString(snapshot.toPath(), "Alice,10\n");
+
+        assertThrows(IOException.class, () -> BinaryLeaderboardFile.open(snapshot.toPath()));
+    }
+
+    @Test
+    void testOpenRejectsTruncatedFile() throws Exception {
+        BinaryLeaderboardFile.write(snapshot.toPath(), 0, List.of(new LeaderboardEntry("Alice", 10)));
+        Path path = snapshot.toPath();
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 2));
+
+        assertThrows(IOException.class, () -> BinaryLeaderboardFile.open(path));
+    }
+
+    @Test
+    void testCorruptNameOffsetsAreRejectedWhenRead() throws Exception {
+        BinaryLeaderboardFile.write(snapshot.toPath(), 0, List.of(
+                new LeaderboardEntry("Alice", 10),
+                new LeaderboardEntry("Bob", 5)));
+        Path path = snapshot.toPath();
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path));
+        // The second name's offset, past the end of the name pool
+        bytes.putInt(BinaryLeaderboardFile.HEADER_BYTES + 12 * 2 + 4, 100);
+        Files.write(path, bytes.array());
+
+        // Opening reads only the header; the names either side of the bad offset fail as they are read
+        BinaryLeaderboardFile file = BinaryLeaderboardFile.open(path);
+        assertEquals(10, file.getScore(0));
+        assertThrows(UncheckedIOException.class, () -> file.getName(0));
+        assertThrows(UncheckedIOException.class, () -> file.getName(1));
+        assertThrows(UncheckedIOException.class, () -> file.readTop(2));
+
+        AppendOnlyLeaderboardStore store = new AppendOnlyLeaderboardStore(snapshot,
+                AppendOnlyLeaderboardStore.DEFAULT_COMPACTION_THRESHOLD,
+                AppendOnlyLeaderboardStore.SnapshotFormat.BINARY);
+        assertTrue(store.load().isEmpty());
+    }
+
+    @Test
+    void testBinaryStoreSurvivesCompactionAndReload() {
+        Leaderboard lb = new Leaderboard(new AppendOnlyLeaderboardStore(snapshot, 3,
+                AppendOnlyLeaderboardStore.SnapshotFormat.BINARY));
+        for (int i = 0; i < 5; i++) {
+            lb.addEntry("P" + i, i);
+        }
+        lb.flush();
+
+        Leaderboard loaded = new Leaderboard(new AppendOnlyLeaderboardStore(snapshot, 3,
+                AppendOnlyLeaderboardStore.SnapshotFormat.BINARY));
+
+        assertEquals(5, loaded.getEntries().size());
+        assertEquals("P4", loaded.getEntries().get(0).getName());
+    }
+
+    @Test
+    void testTopKBoardReadsOnlyTopOfSnapshot() throws Exception {
+        BinaryLeaderboardFile.write(snapshot.toPath(), 0, List.of(
+                new LeaderboardEntry("A", 30),
+                new LeaderboardEntry("B", 20),
+                new LeaderboardEntry("C", 10)));
+        AppendOnlyLeaderboardStore store = new AppendOnlyLeaderboardStore(snapshot,
+                AppendOnlyLeaderboardStore.DEFAULT_COMPACTION_THRESHOLD,
+                AppendOnlyLeaderboardStore.SnapshotFormat.BINARY);
+
+        assertEquals(2, store.load(2).size());
+    }
+
+    @Test
+    void testMigrationRoundTripsThroughText() throws Exception {
+        Files.writeString(text.toPath(), "Alice,10\nBob,20\n");
+
+        BinaryLeaderboardFile.main(new String[] {"to-binary", text.getPath(), snapshot.getPath()});
+        BinaryLeaderboardFile file = BinaryLeaderboardFile.open(snapshot.toPath());
+        assertEquals(2, file.size());
+        assertEquals("Bob", file.getName(0));
+
+        Files.delete(text.toPath());
+        BinaryLeaderboardFile.main(new String[] {"to-text", snapshot.getPath(), text.getPath()});
+        Leaderboard lb = new Leaderboard(text);
+        assertEquals(2, lb.getEntries().size());
+        assertEquals("Bob", lb.getEntries().get(0).getName());
+    }
+
+    @Test
+    void testTimestampsRoundTrip() throws Exception {
+        BinaryLeaderboardFile.write(snapshot.toPath(), 0, List.of(
+                new LeaderboardEntry("A", 3, 1_700_000_000_000L),
+                new LeaderboardEntry("B", 2)));
+
+        List<LeaderboardEntry> entries = BinaryLeaderboardFile.open(snapshot.toPath()).readTop(2);
+
+        assertEquals(1_700_000_000_000L, entries.get(0).getTimestamp());
+        assertEquals(0, entries.get(1).getTimestamp());
+    }
+
+    @Test
+    void testReadsVersionOneFiles() throws Exception {
+        byte[] name = "Alice".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer v1 = ByteBuffer.allocate(BinaryLeaderboardFile.HEADER_BYTES + 4 + 8 + name.length);
+        v1.putInt(BinaryLeaderboardFile.MAGIC).putInt(1).putLong(4).putInt(1).putInt(name.length);
+        v1.putInt(42).putInt(0).putInt(name.length).put(name);
+        Files.write(snapshot.toPath(), v1.array());
+
+        BinaryLeaderboardFile file = BinaryLeaderboardFile.open(snapshot.toPath());
+
+        assertEquals(4, file.getGeneration());
+        assertEquals("Alice", file.getName(0));
+        assertEquals(42, file.getScore(0));
+        assertEquals(0, file.getTimestamp(0));
+    }
+}
@@ -0,0 +1,43 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardTest {
+
+    @Test
+    void testIdRoundTripsRankAndSuit() {
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                int id = Card.idOf(rank, suit);
+                assertEquals(rank.ordinal(), Card.rankOf(id));
+                assertEquals(suit.ordinal(), Card.suitOf(id));
+            }
+        }
+    }
+
+    @Test
+    void testIdsAreUniqueAndInRange() {
+        boolean[] seen = new boolean[Card.DECK_SIZE];
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                int id = Card.idOf(rank, suit);
+                assertFalse(seen[id], "Each card should have its own id.");
+                seen[id] = true;
+            }
+        }
+    }
+
+    @Test
+    void testOfReturnsCanonicalInstance() {
+        Card card = Card.of(Rank.QUEEN, Suit.SPADES);
+
+        assertSame(card, Card.of(card.getId()));
+        assertEquals(Rank.QUEEN, card.getRank());
+        assertEquals(Suit.SPADES, card.getSuit());
+    }
+
+    @Test
+    void testToStringFormat() {
+        assertEquals("Ace of Hearts", Card.of(Rank.ACE, Suit.HEARTS).toString());
+        assertEquals("10 of Clubs", new Card(Rank.TEN, Suit.CLUBS).toString());
+    }
+}
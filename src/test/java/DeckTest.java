@@ -3,6 +3,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -73,6 +74,30 @@ public class DeckTest {
         assertThrows(IndexOutOfBoundsException.class, () -> deck.drawCard());
     }
 
+    @Test
+    void testDrawCardIdMatchesCanonicalCard() {
+        int id = deck.drawCardId();
+        Card next = deck.drawCard();
+
+        assertSame(next, Card.of(next.getId()), "drawCard() should return the shared card instance.");
+        assertNotEquals(id, next.getId(), "Each id should only be drawn once.");
+        assertEquals(50, deck.getSize());
+    }
+
+    @Test
+    void testRankCountsTrackDraws() {
+        RankCounts counts = deck.getRankCounts();
+        assertEquals(52, counts.total());
+
+        Card card = deck.drawCard();
+        int rank = card.getRank().ordinal();
+
+        assertEquals(51, counts.total());
+        assertEquals(3, counts.countOf(rank));
+        assertEquals(4 * rank, counts.countBelow(rank));
+        assertEquals(4 * (12 - rank), counts.countAbove(rank));
+    }
+
     // -----------------------
     // 3. Shuffling
     // -----------------------
@@ -100,4 +125,27 @@ public class DeckTest {
         assertEquals(before, after,
                 "Shuffling should not change the number of cards in the deck.");
     }
+
+    @Test
+    void testSameSeedGivesSameOrder() {
+        Deck first = Deck.withSeed(42);
+        Deck second = new Deck(new SplittableRandom(42));
+
+        while (!first.isEmpty()) {
+            assertEquals(first.drawCardId(), second.drawCardId(),
+                    "Decks shuffled from the same seed should deal the same cards.");
+        }
+    }
+
+    @Test
+    void testDifferentSeedsGiveDifferentOrders() {
+        Deck first = Deck.withSeed(1);
+        Deck second = Deck.withSeed(2);
+
+        boolean differs = false;
+        while (!first.isEmpty()) {
+            differs |= first.drawCardId() != second.drawCardId();
+        }
+        assertTrue(differs, "Different seeds should produce different card orders.");
+    }
 }
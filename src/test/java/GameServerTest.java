@@ -0,0 +1,111 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServerTest {
+
+    private final File tempFile = new File("test_server_leaderboard.txt");
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        Files.deleteIfExists(tempFile.toPath());
+        Files.deleteIfExists(new File(tempFile.getPath() + ".log").toPath());
+    }
+
+    /** Connects, plays one game by always answering "h", and returns the whole transcript. */
+    private static String playOneGame(int port, String name) throws Exception {
+        try (Socket socket = new Socket("localhost", port);
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+
+            StringBuilder transcript = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null) {
+                transcript.append(line).append('\n');
+                if (line.startsWith("What is your name?")) {
+                    out.println(name);
+                } else if (line.startsWith("Higher or Lower?")) {
+                    out.println("h");
+                } else if (line.startsWith("Would you like to play again?")) {
+                    out.println("n");
+                }
+            }
+            return transcript.toString();
+        }
+    }
+
+    @Test
+    void testSessionPlaysAGameAndRecordsTheScore() throws Exception {
+        Leaderboard leaderboard = new Leaderboard(tempFile);
+
+        try (GameServer server = new GameServer(0, leaderboard)) {
+            server.start();
+            String transcript = playOneGame(server.getPort(), "Tester");
+
+            assertTrue(transcript.startsWith("Welcome to Higher or Lower!"));
+            assertTrue(transcript.contains("Game over! Final score: "));
+            assertTrue(transcript.contains("Thanks for playing!"));
+        }
+
+        assertEquals(1, leaderboard.getEntries().size());
+        assertEquals("Tester", leaderboard.getEntries().get(0).getName());
+    }
+
+    @Test
+    void testCloseDisconnectsOpenSessions() throws Exception {
+        GameServer server = new GameServer(0, Leaderboard.inMemory(Leaderboard.UNBOUNDED));
+        server.start();
+        try (Socket socket = new Socket("localhost", server.getPort());
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            assertEquals("Welcome to Higher or Lower!", in.readLine());
+            assertEquals("What is your name?", in.readLine());
+
+            server.close();
+
+            socket.setSoTimeout(5_000);
+            assertNull(in.readLine(), "Closing the server should close the session.");
+        }
+    }
+
+    @Test
+    void testConcurrentSessionsShareOneLeaderboard() throws Exception {
+        Leaderboard leaderboard = new Leaderboard(tempFile);
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+
+        try (GameServer server = new GameServer(0, leaderboard)) {
+            server.start();
+            List<Future<String>> games = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                String name = "Player" + i;
+                Callable<String> game = () -> playOneGame(server.getPort(), name);
+                games.add(clients.submit(game));
+            }
+            for (Future<String> game : games) {
+                assertTrue(game.get().contains("Game over!"));
+            }
+        } finally {
+            clients.shutdown();
+        }
+
+        assertEquals(16, leaderboard.getEntries().size());
+    }
+}
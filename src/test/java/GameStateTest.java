@@ -0,0 +1,165 @@
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStateTest {
+
+    /** A card source that deals the given cards in order. */
+    private static CardSource dealing(Card... cards) {
+        RankCounts counts = new RankCounts(0);
+        for (Card card : cards) {
+            counts.add(card.getRank().ordinal());
+        }
+        return new CardSource() {
+            private int next;
+
+            @Override
+            public int drawCardId() {
+                counts.remove(cards[next].getRank().ordinal());
+                return cards[next++].getId();
+            }
+
+            @Override
+            public RankCounts getRankCounts() {
+                return counts;
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return next == cards.length;
+            }
+
+            @Override
+            public int getSize() {
+                return cards.length - next;
+            }
+        };
+    }
+
+    @Test
+    void testInitialState() {
+        GameState state = new GameState(dealing(
+                Card.of(Rank.FIVE, Suit.HEARTS), Card.of(Rank.NINE, Suit.CLUBS)));
+
+        assertEquals(Rank.FIVE, state.getCurrentCard().getRank());
+        assertEquals(GameState.DEFAULT_LIVES, state.getLives());
+        assertEquals(0, state.getScore());
+        assertFalse(state.isOver());
+    }
+
+    @Test
+    void testCorrectGuessScoresAndAdvances() {
+        GameState state = new GameState(dealing(
+                Card.of(Rank.FIVE, Suit.HEARTS), Card.of(Rank.NINE, Suit.CLUBS)));
+
+        assertEquals(Outcome.CORRECT, state.step(Guess.HIGHER));
+        assertEquals(1, state.getScore());
+        assertEquals(Rank.NINE, state.getCurrentCard().getRank());
+        assertTrue(state.isOver(), "The game should end when the deck runs out.");
+    }
+
+    @Test
+    void testWrongGuessCostsALife() {
+        GameState state = new GameState(dealing(
+                Card.of(Rank.KING, Suit.HEARTS), Card.of(Rank.TWO, Suit.SPADES), Card.of(Rank.ACE, Suit.SPADES)));
+
+        assertEquals(Outcome.WRONG, state.step(Guess.HIGHER));
+        assertEquals(GameState.DEFAULT_LIVES - 1, state.getLives());
+        assertEquals(0, state.getScore());
+    }
+
+    @Test
+    void testEqualRanksChangeNothing() {
+        GameState state = new GameState(dealing(
+                Card.of(Rank.SEVEN, Suit.HEARTS), Card.of(Rank.SEVEN, Suit.DIAMONDS), Card.of(Rank.ACE, Suit.SPADES)));
+
+        assertEquals(Outcome.TIE, state.step(Guess.LOWER));
+        assertEquals(0, state.getScore());
+        assertEquals(GameState.DEFAULT_LIVES, state.getLives());
+        assertEquals(1, state.getRound());
+    }
+
+    @Test
+    void testGameEndsWhenLivesRunOut() {
+        GameState state = new GameState(Deck.withSeed(5), 1);
+
+        while (!state.isOver()) {
+            state.step(Guess.HIGHER);
+        }
+        assertTrue(state.getLives() == 0 || state.getDeck().isEmpty());
+        assertThrows(IllegalStateException.class, () -> state.step(Guess.HIGHER));
+    }
+
+    @Test
+    void testOddsReflectUndrawnCards() {
+        GameState state = new GameState(dealing(
+                Card.of(Rank.FIVE, Suit.HEARTS), Card.of(Rank.FIVE, Suit.CLUBS),
+                Card.of(Rank.NINE, Suit.CLUBS), Card.of(Rank.TWO, Suit.SPADES), Card.of(Rank.KING, Suit.SPADES)));
+
+        assertEquals(0.5, state.getHigherProbability());
+        assertEquals(0.25, state.getLowerProbability());
+        assertEquals(0.25, state.getEqualProbability());
+    }
+
+    @Test
+    void testOddsFromAFreshDeckSumToOne() {
+        GameState state = new GameState(Deck.withSeed(3));
+
+        double sum = state.getHigherProbability() + state.getLowerProbability() + state.getEqualProbability();
+        assertEquals(1.0, sum, 1e-12);
+        assertEquals(3.0 / 51, state.getEqualProbability(), 1e-12);
+    }
+
+    @Test
+    void testOutcomeTableMatchesRankComparison() {
+        for (int current = 0; current < Card.DECK_SIZE; current++) {
+            for (int next = 0; next < Card.DECK_SIZE; next++) {
+                int currentValue = Card.of(current).getRank().getValue();
+                int nextValue = Card.of(next).getRank().getValue();
+
+                Outcome higher = Outcome.judge(Guess.HIGHER, current, next);
+                Outcome lower = Outcome.judge(Guess.LOWER, current, next);
+
+                if (nextValue == currentValue) {
+                    assertEquals(Outcome.TIE, higher);
+                    assertEquals(Outcome.TIE, lower);
+                } else {
+                    assertEquals(nextValue > currentValue ? Outcome.CORRECT : Outcome.WRONG, higher);
+                    assertEquals(nextValue < currentValue ? Outcome.CORRECT : Outcome.WRONG, lower);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRoundsDoNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        GameState state = new GameState(new Shoe(1, 26, new SplittableRandom(1)), Integer.MAX_VALUE);
+
+        for (int round = 0; round < 200_000; round++) {
+            state.step(BotStrategy.COUNTING.guess(state));
+        }
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int round = 0; round < 1_000_000; round++) {
+            state.step(BotStrategy.COUNTING.guess(state));
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(allocated < 1024, "Headless rounds should not allocate, but allocated " + allocated + " bytes.");
+    }
+
+    @Test
+    void testPlayIsReproducibleFromASeed() {
+        GuessStrategy midpoint = s -> s.getCurrentCard().getRank().getValue() < 7 ? Guess.HIGHER : Guess.LOWER;
+
+        int first = new GameState(Deck.withSeed(11)).play(midpoint);
+        int second = new GameState(Deck.withSeed(11)).play(midpoint);
+
+        assertEquals(first, second, "The same seed and strategy should give the same score.");
+    }
+}
@@ -0,0 +1,149 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaderboardCompactorTest {
+
+    private final File snapshot = new File("test_compactor.txt");
+    private final File log = new File("test_compactor.txt.log");
+
+    private static final RetentionPolicy POLICY = RetentionPolicy.keepAll().withBestPerPlayer(2).withoutZeroScores();
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        Files.deleteIfExists(snapshot.toPath());
+        Files.deleteIfExists(log.toPath());
+    }
+
+    private static void play(Leaderboard lb) {
+        for (int i = 0; i < 5; i++) {
+            lb.addEntry("Alice", 10 + i);
+            lb.addEntry("Bob", i);
+        }
+    }
+
+    @Test
+    void testCompactionAppliesThePolicyToBoardAndStore() {
+        Leaderboard lb = new Leaderboard(snapshot);
+        play(lb);
+
+        CompactionReport report = lb.compact(POLICY);
+
+        assertEquals(10, report.getEntriesBefore());
+        assertEquals(4, report.getEntriesAfter());
+        assertEquals(6, report.getReclaimedEntries());
+        assertTrue(report.getReclaimedBytes() > 0);
+        assertEquals(4, lb.size());
+        assertEquals(1, lb.getRank(14));
+        assertEquals(4, lb.getRank(3));
+        assertFalse(log.exists());
+
+        List<LeaderboardEntry> reloaded = new Leaderboard(snapshot).getEntries();
+        assertEquals(List.of("Alice - 14", "Alice - 13", "Bob - 4", "Bob - 3"),
+                reloaded.stream().map(LeaderboardEntry::toString).toList());
+    }
+
+    @Test
+    void testProfilesStillCountEveryGame() {
+        Leaderboard lb = new Leaderboard(snapshot);
+        play(lb);
+
+        lb.compact(POLICY);
+
+        assertEquals(5, lb.getProfile("Bob").orElseThrow().getGamesPlayed());
+    }
+
+    @Test
+    void testEntriesAddedAfterCompactionAreSaved() {
+        Leaderboard lb = new Leaderboard(snapshot);
+        play(lb);
+        lb.compact(POLICY);
+
+        lb.addEntry("Carol", 7);
+
+        assertEquals(5, new Leaderboard(snapshot).size());
+    }
+
+    @Test
+    void testCompactorRunsOnItsOwnThroughAWriteBehindStore() throws Exception {
+        WriteBehindLeaderboardStore store = new WriteBehindLeaderboardStore(new AppendOnlyLeaderboardStore(snapshot));
+        Leaderboard lb = new Leaderboard(store);
+        play(lb);
+
+        CompactionReport report;
+        try (LeaderboardCompactor compactor = new LeaderboardCompactor(lb, POLICY)) {
+            report = compactor.compactNow().get(10, TimeUnit.SECONDS);
+            assertSame(report, compactor.getLastReport().orElseThrow());
+        }
+        store.close();
+
+        assertEquals(6, report.getReclaimedEntries());
+        assertTrue(report.getReclaimedBytes() > 0);
+        assertEquals(report.getEntriesAfter(), new Leaderboard(snapshot).size());
+    }
+
+    @Test
+    void testFailedScheduledRunDoesNotStopLaterRuns() throws Exception {
+        LeaderboardStore failsOnce = new LeaderboardStore() {
+            private boolean failed;
+
+            @Override
+            public List<LeaderboardEntry> load() {
+                return new ArrayList<>();
+            }
+
+            @Override
+            public void append(LeaderboardEntry entry) {
+            }
+
+            @Override
+            public boolean needsCompaction() {
+                return false;
+            }
+
+            @Override
+            public void compact(List<LeaderboardEntry> entries) {
+                if (!failed) {
+                    failed = true;
+                    throw new IllegalStateException("Disk full");
+                }
+            }
+        };
+        Leaderboard lb = new Leaderboard(failsOnce);
+        play(lb);
+
+        try (LeaderboardCompactor compactor = new LeaderboardCompactor(lb, POLICY).start(Duration.ofMillis(10))) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (compactor.getLastReport().isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(compactor.getLastReport().isPresent(), "A later run should succeed after one fails.");
+        }
+    }
+
+    @Test
+    void testInMemoryBoardsReportNoBytes() {
+        Leaderboard lb = Leaderboard.inMemory(Leaderboard.UNBOUNDED);
+        play(lb);
+
+        CompactionReport report = lb.compact(POLICY);
+
+        assertEquals(4, lb.size());
+        assertEquals(-1, report.getReclaimedBytes());
+    }
+
+    @Test
+    void testPeriodMustBePositive() {
+        try (LeaderboardCompactor compactor = new LeaderboardCompactor(Leaderboard.inMemory(1), POLICY)) {
+            assertThrows(IllegalArgumentException.class, () -> compactor.start(Duration.ZERO));
+        }
+    }
+}
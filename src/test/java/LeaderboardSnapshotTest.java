@@ -0,0 +1,188 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaderboardSnapshotTest {
+
+    private final LeaderboardSnapshot.NamePool pool = new LeaderboardSnapshot.NamePool();
+
+    private static LeaderboardEntry entry(String name, int score, long sequence) {
+        return new LeaderboardEntry(name, score, 0, sequence);
+    }
+
+    private static LeaderboardSnapshot.Removals removals(long... sequences) {
+        LeaderboardSnapshot.Removals removals = new LeaderboardSnapshot.Removals();
+        for (long sequence : sequences) {
+            removals.add(sequence);
+        }
+        return removals;
+    }
+
+    private static List<String> describe(LeaderboardSnapshot snapshot) {
+        return snapshot.getEntries().stream().map(LeaderboardEntry::toString).toList();
+    }
+
+    @Test
+    void testFirstMergeSortsTheEntries() {
+        LeaderboardSnapshot snapshot = LeaderboardSnapshot.EMPTY.merge(
+                List.of(entry("A", 5, 0), entry("B", 9, 1), entry("C", 7, 2)), new LeaderboardSnapshot.Removals(), pool);
+
+        assertEquals(List.of("B - 9", "C - 7", "A - 5"), describe(snapshot));
+        assertEquals(1, snapshot.getVersion());
+    }
+
+    @Test
+    void testMergeInterleavesWithThePreviousRun() {
+        LeaderboardSnapshot first = LeaderboardSnapshot.EMPTY.merge(
+                List.of(entry("A", 10, 0), entry("B", 5, 1), entry("C", 1, 2)), new LeaderboardSnapshot.Removals(), pool);
+
+        LeaderboardSnapshot second = first.merge(
+                List.of(entry("D", 5, 3), entry("E", 12, 4), entry("F", 3, 5)), new LeaderboardSnapshot.Removals(), pool);
+
+        assertEquals(List.of("E - 12", "A - 10", "B - 5", "D - 5", "F - 3", "C - 1"), describe(second));
+        assertEquals(2, second.getVersion());
+        assertEquals(List.of("A - 10", "B - 5", "C - 1"), describe(first), "Earlier snapshots must not change.");
+    }
+
+    @Test
+    void testEqualScoresKeepSubmissionOrderWhenMergedLate() {
+        LeaderboardSnapshot first = LeaderboardSnapshot.EMPTY.merge(List.of(entry("Late", 5, 7)), new LeaderboardSnapshot.Removals(), pool);
+
+        LeaderboardSnapshot second = first.merge(List.of(entry("Early", 5, 3)), new LeaderboardSnapshot.Removals(), pool);
+
+        assertEquals(List.of("Early - 5", "Late - 5"), describe(second));
+    }
+
+    @Test
+    void testRemovedEntriesAreDropped() {
+        LeaderboardSnapshot first = LeaderboardSnapshot.EMPTY.merge(
+                List.of(entry("A", 10, 0), entry("B", 5, 1)), new LeaderboardSnapshot.Removals(), pool);
+        LeaderboardSnapshot.Removals removed = removals(99, 2, 1);
+
+        LeaderboardSnapshot second = first.merge(List.of(entry("C", 7, 2), entry("D", 3, 3)), removed, pool);
+
+        assertEquals(List.of("A - 10", "D - 3"), describe(second));
+        assertEquals(1, removed.size(), "Unmatched removals should be left for a later merge.");
+        assertTrue(removed.remove(99));
+    }
+
+    @Test
+    void testRemovalsAddedAfterAMatchAreStillFound() {
+        LeaderboardSnapshot.Removals removed = removals(5, 3);
+        assertTrue(removed.remove(3));
+
+        removed.add(4);
+        removed.add(1);
+
+        assertFalse(removed.remove(3), "A matched removal should not match again.");
+        assertTrue(removed.remove(1));
+        assertTrue(removed.remove(4));
+        assertTrue(removed.remove(5));
+        assertTrue(removed.isEmpty());
+    }
+
+    @Test
+    void testNamesAreShared() {
+        String alice = new String("Alice");
+        LeaderboardSnapshot first = LeaderboardSnapshot.EMPTY.merge(List.of(entry(alice, 1, 0)), new LeaderboardSnapshot.Removals(), pool);
+
+        LeaderboardSnapshot second = first.merge(List.of(entry(new String("Alice"), 2, 1)), new LeaderboardSnapshot.Removals(), pool);
+
+        assertSame(alice, second.getName(0));
+        assertSame(alice, second.getName(1));
+    }
+
+    @Test
+    void testNamePoolIsRebuiltOnceMostNamesHaveLeftTheBoard() {
+        LeaderboardSnapshot first = LeaderboardSnapshot.EMPTY.merge(List.of(entry("P0", 0, 0)), removals(), pool);
+        LeaderboardSnapshot snapshot = first;
+        int rounds = 3 * LeaderboardSnapshot.NamePool.SLACK;
+        for (int i = 1; i <= rounds; i++) {
+            snapshot = snapshot.merge(List.of(entry("P" + i, i, i)), removals(i - 1), pool);
+        }
+
+        assertTrue(pool.size() <= 2 + LeaderboardSnapshot.NamePool.SLACK, "The pool should not keep every name.");
+        assertEquals(List.of("P" + rounds + " - " + rounds), describe(snapshot));
+        assertEquals("P0", first.getName(0), "Older snapshots should keep the names they were built with.");
+        snapshot = snapshot.merge(List.of(entry("P" + rounds, 0, rounds + 1)), removals(), pool);
+        assertSame(snapshot.getName(0), snapshot.getName(1));
+    }
+
+    @Test
+    void testIndexOfBestFindsEachPlayersFirstEntry() {
+        LeaderboardSnapshot first = LeaderboardSnapshot.EMPTY.merge(
+                List.of(entry("A", 9, 0), entry("B", 7, 1), entry("A", 7, 2), entry("C", 2, 3)), removals(), pool);
+        LeaderboardSnapshot second = first.merge(List.of(entry("D", 8, 4)), removals(0), pool);
+
+        assertEquals(0, first.indexOfBest("A"));
+        assertEquals(3, first.indexOfBest("C"));
+        assertEquals(-1, first.indexOfBest("D"), "A name pooled after the snapshot was built is not in it.");
+        assertEquals(2, second.indexOfBest("A"));
+        assertEquals(0, second.indexOfBest("D"));
+        assertEquals(-1, second.indexOfBest("Nobody"));
+    }
+
+    @Test
+    void testEntriesCannotBeModified() {
+        LeaderboardSnapshot snapshot = LeaderboardSnapshot.EMPTY.merge(List.of(entry("A", 1, 0)), new LeaderboardSnapshot.Removals(), pool);
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getEntries().clear());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getEntries().add(entry("B", 2, 1)));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.getScore(1));
+    }
+
+    @Test
+    void testRankUsesBinarySearch() {
+        LeaderboardSnapshot snapshot = LeaderboardSnapshot.EMPTY.merge(
+                List.of(entry("A", 9, 0), entry("B", 7, 1), entry("C", 7, 2), entry("D", 2, 3)), new LeaderboardSnapshot.Removals(), pool);
+
+        assertEquals(1, snapshot.getRank(10));
+        assertEquals(2, snapshot.getRank(7));
+        assertEquals(4, snapshot.getRank(5));
+        assertEquals(5, snapshot.getRank(0));
+    }
+
+    @Test
+    void testPositionsAndPercentilesUseBinarySearch() {
+        LeaderboardSnapshot snapshot = LeaderboardSnapshot.EMPTY.merge(
+                List.of(entry("A", 9, 0), entry("B", 7, 1), entry("C", 7, 2), entry("D", 2, 3)), new LeaderboardSnapshot.Removals(), pool);
+
+        assertEquals(2, snapshot.indexAfter(7, 1));
+        assertEquals(3, snapshot.indexAfter(7, Long.MAX_VALUE));
+        assertEquals(0, snapshot.indexAfter(10, 0));
+        assertEquals(4, snapshot.indexAfter(2, 3));
+        assertEquals(75.0, snapshot.getPercentile(7));
+        assertEquals(0.0, snapshot.getPercentile(1));
+        assertEquals(0.0, LeaderboardSnapshot.EMPTY.getPercentile(5));
+    }
+
+    @Test
+    void testRepeatedMergesMatchAFullSort() {
+        Random random = new Random(42);
+        List<LeaderboardEntry> board = new ArrayList<>();
+        LeaderboardSnapshot snapshot = LeaderboardSnapshot.EMPTY;
+        LeaderboardSnapshot.Removals removed = new LeaderboardSnapshot.Removals();
+        long sequence = 0;
+        for (int round = 0; round < 200; round++) {
+            List<LeaderboardEntry> added = new ArrayList<>();
+            for (int i = random.nextInt(5); i >= 0; i--) {
+                added.add(entry("P" + random.nextInt(20), random.nextInt(50), sequence++));
+            }
+            board.addAll(added);
+            if (round % 3 == 0 && !board.isEmpty()) {
+                removed.add(board.remove(random.nextInt(board.size())).getSequence());
+            }
+            snapshot = snapshot.merge(added, removed, pool);
+        }
+
+        board.sort(Comparator.comparingInt(LeaderboardEntry::getScore).reversed()
+                .thenComparingLong(LeaderboardEntry::getSequence));
+        assertEquals(board.stream().map(LeaderboardEntry::toString).toList(), describe(snapshot));
+        assertTrue(removed.isEmpty());
+    }
+}
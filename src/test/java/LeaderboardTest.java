@@ -3,18 +3,26 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class LeaderboardTest {
 
     private final File tempFile = new File("test_leaderboard.txt");
+    private final File logFile = new File("test_leaderboard.txt.log");
 
     @AfterEach
     void cleanUp() throws Exception {
         if (tempFile.exists()) {
             Files.delete(tempFile.toPath());
         }
+        Files.deleteIfExists(logFile.toPath());
     }
 
     @Test
@@ -42,6 +50,86 @@ public class LeaderboardTest {
         assertEquals(15, loaded.getEntries().get(0).getScore());
     }
 
+    @Test
+    void testNamesThatLookLikeHeadersSurviveReload() {
+        Leaderboard lb = new Leaderboard(tempFile);
+        lb.addEntry("#1Fan", 10);
+        lb.addEntry("# generation 99", 7);
+        lb.addEntry("Bob", 5);
+
+        Leaderboard loaded = new Leaderboard(tempFile);
+
+        assertEquals(List.of("#1Fan", "# generation 99", "Bob"),
+                loaded.getEntries().stream().map(LeaderboardEntry::getName).toList());
+    }
+
+    @Test
+    void testEntriesPersistAcrossCompaction() {
+        Leaderboard lb = new Leaderboard(new AppendOnlyLeaderboardStore(tempFile, 2));
+        lb.addEntry("A", 5);
+        lb.addEntry("B", 50);
+        lb.addEntry("C", 20);
+        lb.flush();
+
+        Leaderboard loaded = new Leaderboard(tempFile);
+
+        assertEquals(3, loaded.getEntries().size());
+        assertEquals("B", loaded.getEntries().get(0).getName());
+        assertEquals("C", loaded.getEntries().get(1).getName());
+        assertEquals("A", loaded.getEntries().get(2).getName());
+    }
+
+    @Test
+    void testEqualScoresKeepSubmissionOrder() {
+        Leaderboard lb = new Leaderboard(tempFile);
+        lb.addEntry("First", 10);
+        lb.addEntry("Second", 10);
+        lb.addEntry("Third", 10);
+
+        assertEquals("First", lb.getEntries().get(0).getName());
+        assertEquals("Second", lb.getEntries().get(1).getName());
+        assertEquals("Third", lb.getEntries().get(2).getName());
+    }
+
+    @Test
+    void testTopKKeepsOnlyBestEntries() {
+        Leaderboard lb = new Leaderboard(tempFile, 3);
+        lb.addEntry("A", 5);
+        lb.addEntry("B", 50);
+        lb.addEntry("C", 20);
+        lb.addEntry("D", 30);
+        lb.addEntry("E", 1);
+
+        assertEquals(3, lb.getEntries().size());
+        assertEquals("B", lb.getEntries().get(0).getName());
+        assertEquals("D", lb.getEntries().get(1).getName());
+        assertEquals("C", lb.getEntries().get(2).getName());
+    }
+
+    @Test
+    void testTopKRejectsTieWithCutoff() {
+        Leaderboard lb = new Leaderboard(tempFile, 2);
+        lb.addEntry("A", 10);
+        lb.addEntry("B", 5);
+        lb.addEntry("Late", 5);
+
+        assertEquals("B", lb.getEntries().get(1).getName(), "Earlier equal scores should rank first.");
+    }
+
+    @Test
+    void testTopKTrimsOnReload() {
+        Leaderboard full = new Leaderboard(tempFile);
+        for (int i = 0; i < 10; i++) {
+            full.addEntry("P" + i, i);
+        }
+
+        Leaderboard top = new Leaderboard(tempFile, 4);
+
+        assertEquals(4, top.getEntries().size());
+        assertEquals(9, top.getEntries().get(0).getScore());
+        assertEquals(6, top.getEntries().get(3).getScore());
+    }
+
     @Test
     void testSortingDescending() {
         Leaderboard lb = new Leaderboard(tempFile);
@@ -53,4 +141,308 @@ public class LeaderboardTest {
         assertEquals("C", lb.getEntries().get(1).getName());
         assertEquals("A", lb.getEntries().get(2).getName());
     }
+
+    @Test
+    void testConcurrentSubmissionsAreAllKept() throws Exception {
+        Leaderboard lb = Leaderboard.inMemory(Leaderboard.UNBOUNDED);
+
+        submitConcurrently(lb, 8, 5_000);
+
+        List<LeaderboardEntry> entries = lb.getEntries();
+        assertEquals(40_000, entries.size());
+        for (int i = 1; i < entries.size(); i++) {
+            assertTrue(entries.get(i - 1).getScore() >= entries.get(i).getScore());
+        }
+    }
+
+    @Test
+    void testConcurrentTopKKeepsBestScores() throws Exception {
+        Leaderboard lb = Leaderboard.inMemory(100);
+
+        submitConcurrently(lb, 8, 5_000);
+
+        List<LeaderboardEntry> entries = lb.getEntries();
+        assertEquals(100, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(39_999 - i, entries.get(i).getScore());
+        }
+    }
+
+    @Test
+    void testConcurrentSubmissionsPersistExactlyOnce() throws Exception {
+        Leaderboard lb = new Leaderboard(new AppendOnlyLeaderboardStore(tempFile, 50));
+
+        submitConcurrently(lb, 4, 200);
+        lb.flush();
+
+        Leaderboard loaded = new Leaderboard(tempFile);
+        assertEquals(800, loaded.getEntries().size());
+        assertEquals(799, loaded.getEntries().get(0).getScore());
+        assertEquals(0, loaded.getEntries().get(799).getScore());
+    }
+
+    @Test
+    void testRankAndPercentileQueries() {
+        Leaderboard lb = new Leaderboard(tempFile);
+        lb.addEntry("Alice", 10);
+        lb.addEntry("Bob", 30);
+        lb.addEntry("Alice", 20);
+        lb.addEntry("Carol", 5);
+
+        assertEquals(1, lb.getRank(30));
+        assertEquals(3, lb.getRank(10));
+        assertEquals(50.0, lb.getPercentile(10));
+        assertEquals(20, lb.getBestScore("Alice").getAsInt());
+        assertEquals(2, lb.getPlayerRank("Alice").getAsInt());
+        assertEquals(75.0, lb.getPlayerPercentile("Alice").getAsDouble());
+        assertTrue(lb.getPlayerRank("Nobody").isEmpty());
+    }
+
+    @Test
+    void testRankIgnoresEvictedEntries() {
+        Leaderboard lb = Leaderboard.inMemory(2);
+        lb.addEntry("A", 1);
+        lb.addEntry("B", 2);
+        lb.addEntry("C", 3);
+
+        assertEquals(2, lb.size());
+        assertEquals(3, lb.getRank(1));
+        assertEquals(0.0, lb.getPercentile(1));
+    }
+
+    @Test
+    void testProfilesAggregateEveryGame() {
+        Leaderboard lb = Leaderboard.inMemory(Leaderboard.UNBOUNDED);
+        lb.addEntry(new String("Alice"), 10);
+        lb.addEntry(new String("Alice"), 20);
+
+        PlayerStats.Profile profile = lb.getProfile("Alice").orElseThrow();
+        assertEquals(2, profile.getGamesPlayed());
+        assertEquals(15.0, profile.getMeanScore());
+        assertSame(lb.getEntries().get(0).getName(), lb.getEntries().get(1).getName(),
+                "Entries should share one copy of each name.");
+    }
+
+    @Test
+    void testTopAndPageReturnRankedSlices() {
+        Leaderboard lb = Leaderboard.inMemory(Leaderboard.UNBOUNDED);
+        for (int i = 0; i < 10; i++) {
+            lb.addEntry("P" + i, i);
+        }
+
+        LeaderboardPage top = lb.top(3);
+        assertEquals(1, top.getFirstRank());
+        assertEquals(List.of(9, 8, 7), top.getEntries().stream().map(LeaderboardEntry::getScore).toList());
+
+        LeaderboardPage page = lb.page(8, 5);
+        assertEquals(9, page.getFirstRank());
+        assertEquals(List.of(1, 0), page.getEntries().stream().map(LeaderboardEntry::getScore).toList());
+        assertEquals(10, page.getTotal());
+        assertTrue(lb.page(20, 5).isEmpty());
+    }
+
+    @Test
+    void testPageAfterContinuesFromCursor() {
+        Leaderboard lb = Leaderboard.inMemory(Leaderboard.UNBOUNDED);
+        for (int i = 0; i < 7; i++) {
+            lb.addEntry("P" + i, 5);
+        }
+
+        LeaderboardPage first = lb.top(3);
+        LeaderboardPage second = lb.pageAfter(first, 3);
+        LeaderboardPage third = lb.pageAfter(second, 3);
+
+        assertEquals(List.of("P3", "P4", "P5"), second.getEntries().stream().map(LeaderboardEntry::getName).toList());
+        assertEquals(4, second.getFirstRank());
+        assertEquals(List.of("P6"), third.getEntries().stream().map(LeaderboardEntry::getName).toList());
+        assertTrue(lb.pageAfter(third, 3).isEmpty());
+    }
+
+    @Test
+    void testPageAfterFollowsTheCursorWhenTheBoardChanges() {
+        Leaderboard lb = Leaderboard.inMemory(Leaderboard.UNBOUNDED);
+        for (int i = 0; i < 5; i++) {
+            lb.addEntry("P" + i, 50 - i);
+        }
+
+        LeaderboardPage first = lb.top(2);
+        lb.addEntry("New", 100);
+        LeaderboardPage second = lb.pageAfter(first, 2);
+
+        assertEquals(List.of("P2", "P3"), second.getEntries().stream().map(LeaderboardEntry::getName).toList());
+        assertEquals(4, second.getFirstRank(), "Ranks should reflect the board as it is now.");
+        assertEquals(6, second.getTotal());
+    }
+
+    @Test
+    void testAroundCentresOnPlayersBestEntry() {
+        Leaderboard lb = Leaderboard.inMemory(Leaderboard.UNBOUNDED);
+        for (int i = 0; i < 10; i++) {
+            lb.addEntry("P" + i, i * 10);
+        }
+        lb.addEntry("Tie", 50);
+        lb.addEntry("Alice", 50);
+        lb.addEntry("Alice", 5);
+
+        LeaderboardPage around = lb.around("Alice", 2);
+
+        assertEquals(List.of("P5", "Tie", "Alice", "P4", "P3"),
+                around.getEntries().stream().map(LeaderboardEntry::getName).toList());
+        assertEquals(5, around.getFirstRank());
+        assertTrue(lb.around("Nobody", 2).isEmpty());
+    }
+
+    @Test
+    void testAroundUsesBestEntryStillOnTheBoard() {
+        Leaderboard lb = Leaderboard.inMemory(Leaderboard.UNBOUNDED);
+        lb.addEntry("Alice", 90);
+        lb.addEntry("Alice", 40);
+        lb.addEntry("Bob", 60);
+        lb.addEntry("Alice", 0);
+
+        lb.compact(RetentionPolicy.keepAll().withMaxEntries(2));
+
+        LeaderboardPage around = lb.around("Alice", 1);
+        assertEquals(List.of("Alice - 90", "Bob - 60"), around.getEntries().stream().map(LeaderboardEntry::toString).toList());
+
+        lb.compact(RetentionPolicy.keepAll().withMaxEntries(2).withBestPerPlayer(1));
+        lb.addEntry("Carol", 100);
+        lb.compact(RetentionPolicy.keepAll().withMaxEntries(2));
+
+        assertTrue(lb.around("Bob", 1).isEmpty(), "A player with no entry left on the board has no page.");
+        assertEquals(2, lb.around("Alice", 0).getFirstRank());
+    }
+
+    @Test
+    void testAroundAtTopOfBoard() {
+        Leaderboard lb = Leaderboard.inMemory(Leaderboard.UNBOUNDED);
+        lb.addEntry("A", 3);
+        lb.addEntry("B", 2);
+        lb.addEntry("C", 1);
+
+        LeaderboardPage around = lb.around("A", 5);
+
+        assertEquals(1, around.getFirstRank());
+        assertEquals(3, around.getEntries().size());
+    }
+
+    @Test
+    void testRendererFormatsPageInOneBuffer() {
+        Leaderboard lb = Leaderboard.inMemory(Leaderboard.UNBOUNDED);
+        lb.addEntry("Alice", 14);
+        lb.addEntry("Bob", 20);
+        LeaderboardRenderer renderer = new LeaderboardRenderer();
+
+        String rendered = renderer.render("Leaderboard", lb.top(5), "Alice").toString();
+
+        assertEquals("\n--- Leaderboard ---\n1. Bob - 20\n2. Alice - 14 <\n", rendered);
+        assertEquals("\n--- Empty ---\nNo scores yet!\n",
+                renderer.render("Empty", lb.page(5, 5), null).toString());
+    }
+
+    @Test
+    void testGetEntriesIsReadOnly() {
+        Leaderboard lb = Leaderboard.inMemory(Leaderboard.UNBOUNDED);
+        lb.addEntry("Alice", 10);
+
+        assertThrows(UnsupportedOperationException.class, () -> lb.getEntries().clear());
+        assertEquals(1, lb.size());
+    }
+
+    @Test
+    void testSnapshotsAreVersionedAndImmutable() {
+        Leaderboard lb = Leaderboard.inMemory(2);
+        lb.addEntry("A", 5);
+        LeaderboardSnapshot first = lb.snapshot();
+
+        assertSame(first, lb.snapshot(), "An unchanged board should reuse its snapshot.");
+
+        lb.addEntry("B", 7);
+        lb.addEntry("C", 6);
+        LeaderboardSnapshot second = lb.snapshot();
+
+        assertTrue(second.getVersion() > first.getVersion());
+        assertEquals(List.of("B - 7", "C - 6"), second.getEntries().stream().map(LeaderboardEntry::toString).toList());
+        assertEquals(List.of("A - 5"), first.getEntries().stream().map(LeaderboardEntry::toString).toList());
+    }
+
+    @Test
+    void testSubmissionsArePublishedInBatches() {
+        Leaderboard lb = Leaderboard.inMemory(Leaderboard.UNBOUNDED);
+        long before = lb.snapshot().getVersion();
+
+        for (int i = 0; i < 100; i++) {
+            lb.addEntry("P" + i, i);
+        }
+        LeaderboardSnapshot after = lb.snapshot();
+
+        assertEquals(before + 1, after.getVersion(), "Queued submissions should be merged in one snapshot.");
+        assertEquals(100, after.size());
+        assertEquals(99, after.getScore(0));
+    }
+
+    @Test
+    void testSnapshotsFollowCompaction() {
+        Leaderboard lb = Leaderboard.inMemory(Leaderboard.UNBOUNDED);
+        lb.addEntry("A", 5);
+        lb.addEntry("A", 0);
+        lb.snapshot();
+
+        lb.compact(RetentionPolicy.keepAll().withoutZeroScores());
+
+        assertEquals(1, lb.snapshot().size());
+    }
+
+    @Test
+    void testSnapshotsStaySortedDuringConcurrentSubmissions() throws Exception {
+        Leaderboard lb = Leaderboard.inMemory(500);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            long version = -1;
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    LeaderboardSnapshot snapshot = lb.snapshot();
+                    assertTrue(snapshot.getVersion() >= version);
+                    version = snapshot.getVersion();
+                    for (int i = 1; i < snapshot.size(); i++) {
+                        assertTrue(snapshot.getScore(i - 1) >= snapshot.getScore(i));
+                    }
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        reader.start();
+
+        submitConcurrently(lb, 8, 5_000);
+        reader.interrupt();
+        reader.join();
+
+        assertNull(failure.get());
+
+        assertEquals(lb.page(0, Leaderboard.UNBOUNDED).getEntries().stream().map(LeaderboardEntry::toString).toList(),
+                lb.getEntries().stream().map(LeaderboardEntry::toString).toList());
+    }
+
+    /** Has each thread submit its own distinct run of scores, all starting together. */
+    private static void submitConcurrently(Leaderboard lb, int threads, int perThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            int first = t * perThread;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    lb.addEntry("P" + (first + i), first + i);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+    }
 }
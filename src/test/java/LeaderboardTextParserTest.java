@@ -0,0 +1,165 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaderboardTextParserTest {
+
+    private final Path file = Path.of("test_parser_leaderboard.txt");
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    private void write(String contents) throws Exception {
+        Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testParsesNamesAndScores() throws Exception {
+        write("Alice,10\nBob,-3\nZoë,2147483647\n");
+
+        LeaderboardTextParser parsed = LeaderboardTextParser.parse(file);
+
+        List<LeaderboardEntry> entries = parsed.getEntries();
+        assertEquals(3, entries.size());
+        assertEquals("Alice", entries.get(0).getName());
+        assertEquals(-3, entries.get(1).getScore());
+        assertEquals("Zoë", entries.get(2).getName());
+        assertEquals(Integer.MAX_VALUE, entries.get(2).getScore());
+        assertEquals(0, parsed.getMalformedLines());
+    }
+
+    @Test
+    void testNameMayContainCommas() throws Exception {
+        write("Smith, John,42\n");
+
+        LeaderboardEntry entry = LeaderboardTextParser.parse(file).getEntries().get(0);
+
+        assertEquals("Smith, John", entry.getName());
+        assertEquals(42, entry.getScore());
+    }
+
+    @Test
+    void testReadsOptionalTimestamp() throws Exception {
+        write("Alice,10@1700000000000\nSmith, John,-2@5\nBob,7\nCarol,3@\nDave,4@x\n");
+
+        LeaderboardTextParser parsed = LeaderboardTextParser.parse(file);
+
+        List<LeaderboardEntry> entries = parsed.getEntries();
+        assertEquals(3, entries.size());
+        assertEquals(1_700_000_000_000L, entries.get(0).getTimestamp());
+        assertEquals("Smith, John", entries.get(1).getName());
+        assertEquals(-2, entries.get(1).getScore());
+        assertEquals(5, entries.get(1).getTimestamp());
+        assertEquals(0, entries.get(2).getTimestamp());
+        assertEquals(2, parsed.getMalformedLines());
+    }
+
+    @Test
+    void testFormatRoundTrips() throws Exception {
+        StringBuilder text = new StringBuilder();
+        LeaderboardTextParser.format(text, new LeaderboardEntry("a,b", 9, 1234));
+        LeaderboardTextParser.format(text, new LeaderboardEntry("Bob", 3));
+        write(text.toString());
+
+        assertEquals("a,b,9@1234\nBob,3\n", text.toString());
+        List<LeaderboardEntry> entries = LeaderboardTextParser.parse(file).getEntries();
+        assertEquals(1234, entries.get(0).getTimestamp());
+        assertEquals("a,b", entries.get(0).getName());
+        assertEquals(0, entries.get(1).getTimestamp());
+    }
+
+    @Test
+    void testNamesStartingWithHashRoundTrip() throws Exception {
+        List<String> names = List.of("#1Fan", "# generation 99", "\\#x", "\\plain", "a#b");
+        StringBuilder text = new StringBuilder();
+        for (String name : names) {
+            LeaderboardTextParser.format(text, new LeaderboardEntry(name, 1));
+        }
+        write(text.toString());
+
+        LeaderboardTextParser parsed = LeaderboardTextParser.parse(file);
+
+        assertTrue(text.toString().startsWith("\\#1Fan,1\n"));
+        assertEquals(names, parsed.getEntries().stream().map(LeaderboardEntry::getName).toList());
+        assertEquals(0, parsed.getGeneration());
+        assertEquals(0, parsed.getMalformedLines());
+    }
+
+    @Test
+    void testOnlyTheFirstLineIsAHeader() throws Exception {
+        write("Alice,10\n# generation 99\n#1Fan,3\n");
+
+        LeaderboardTextParser parsed = LeaderboardTextParser.parse(file);
+
+        assertEquals(0, parsed.getGeneration());
+        assertEquals(1, parsed.getMalformedLines());
+        assertEquals("#1Fan", parsed.getEntries().get(1).getName(), "Unescaped names from older files are kept.");
+    }
+
+    @Test
+    void testMalformedLinesAreSkippedAndCounted() throws Exception {
+        write("Alice,10\nno comma\nBob,ten\nCarol,\nDave,99999999999\n\nErin,5");
+
+        LeaderboardTextParser parsed = LeaderboardTextParser.parse(file);
+
+        assertEquals(2, parsed.getEntries().size());
+        assertEquals("Erin", parsed.getEntries().get(1).getName());
+        assertEquals(4, parsed.getMalformedLines());
+    }
+
+    @Test
+    void testReadsHeaderAndCrlf() throws Exception {
+        write("# generation 12\r\nAlice,10\r\n");
+
+        LeaderboardTextParser parsed = LeaderboardTextParser.parse(file);
+
+        assertEquals(12, parsed.getGeneration());
+        assertEquals(10, parsed.getEntries().get(0).getScore());
+    }
+
+    @Test
+    void testLinesSpanningChunksAndLongerThanAChunk() throws Exception {
+        String longName = "x".repeat(50);
+        write("Alice,10\n" + longName + ",7\nBob,3\n");
+
+        LeaderboardTextParser parsed = LeaderboardTextParser.parse(file, 1, 8);
+
+        assertEquals(3, parsed.getEntries().size());
+        assertEquals(longName, parsed.getEntries().get(1).getName());
+        assertEquals(3, parsed.getEntries().get(2).getScore());
+    }
+
+    @Test
+    void testParallelRangesMatchSequentialParse() throws Exception {
+        StringBuilder contents = new StringBuilder("# generation 3\n");
+        for (int i = 0; i < 5_000; i++) {
+            contents.append("Player").append(i).append(',').append(i % 97).append('\n');
+            if (i % 500 == 0) {
+                contents.append("bad line\n");
+            }
+        }
+        write(contents.toString());
+
+        LeaderboardTextParser sequential = LeaderboardTextParser.parse(file);
+        for (int ranges : new int[] {2, 3, 7, 16}) {
+            LeaderboardTextParser parallel = LeaderboardTextParser.parse(file, ranges, 256);
+
+            assertEquals(sequential.getEntries().size(), parallel.getEntries().size());
+            for (int i = 0; i < sequential.getEntries().size(); i++) {
+                assertEquals(sequential.getEntries().get(i).getName(), parallel.getEntries().get(i).getName());
+                assertEquals(sequential.getEntries().get(i).getScore(), parallel.getEntries().get(i).getScore());
+            }
+            assertEquals(3, parallel.getGeneration());
+            assertEquals(10, parallel.getMalformedLines());
+        }
+        assertEquals(5_000, sequential.getEntries().size());
+    }
+}
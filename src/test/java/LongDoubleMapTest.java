@@ -0,0 +1,59 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongDoubleMapTest {
+
+    @Test
+    void testPutAndGet() {
+        LongDoubleMap map = new LongDoubleMap(4);
+        map.put(42L, 1.5);
+        map.put(-7L, 2.5);
+
+        assertEquals(1.5, map.get(42L));
+        assertEquals(2.5, map.get(-7L));
+        assertTrue(Double.isNaN(map.get(43L)), "Missing keys should return NaN.");
+    }
+
+    @Test
+    void testGrowsPastInitialCapacity() {
+        LongDoubleMap map = new LongDoubleMap(2);
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key, key * 0.5);
+        }
+
+        assertEquals(10_000, map.size());
+        for (long key = 1; key <= 10_000; key++) {
+            assertEquals(key * 0.5, map.get(key));
+        }
+    }
+
+    @Test
+    void testFullTableFailsInsteadOfOverflowing() {
+        LongDoubleMap map = new LongDoubleMap(2, 8);
+        for (long key = 1; key <= 4; key++) {
+            map.put(key, key);
+        }
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> map.put(5L, 5.0));
+        assertTrue(e.getMessage().contains("4 entries"));
+        map.put(4L, 8.0);
+        assertEquals(8.0, map.get(4L), "Existing keys can still be updated.");
+        assertEquals(4, map.size());
+    }
+
+    @Test
+    void testClearRemovesEntries() {
+        LongDoubleMap map = new LongDoubleMap(8);
+        map.put(1L, 1.0);
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertTrue(Double.isNaN(map.get(1L)));
+    }
+
+    @Test
+    void testZeroKeyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LongDoubleMap(8).put(0L, 1.0));
+    }
+}
@@ -0,0 +1,183 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NioGameServerTest {
+
+    private final File tempFile = new File("test_nio_leaderboard.txt");
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        Files.deleteIfExists(tempFile.toPath());
+        Files.deleteIfExists(new File(tempFile.getPath() + ".log").toPath());
+    }
+
+    /**
+     * Connects and plays the given number of games, answering every prompt with the
+     * given guess, and returns the whole transcript.
+     */
+    private static String play(int port, String name, String guess, int games) throws Exception {
+        try (Socket socket = new Socket("localhost", port);
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+
+            StringBuilder transcript = new StringBuilder();
+            int played = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                transcript.append(line).append('\n');
+                if (line.startsWith("What is your name?")) {
+                    out.println(name);
+                } else if (line.startsWith("Higher or Lower?")) {
+                    out.println(guess);
+                } else if (line.startsWith("Would you like to play again?")) {
+                    out.println(++played < games ? "y" : "n");
+                }
+            }
+            return transcript.toString();
+        }
+    }
+
+    @Test
+    void testSessionPlaysAGameAndRecordsTheScore() throws Exception {
+        Leaderboard leaderboard = new Leaderboard(tempFile);
+
+        try (NioGameServer server = new NioGameServer(0, 1, leaderboard)) {
+            server.start();
+            String transcript = play(server.getPort(), "Tester", "L", 1);
+
+            assertTrue(transcript.startsWith("Welcome to Higher or Lower!\nWhat is your name?\n"
+                    + "Welcome Tester! You have 3 lives.\nCurrent card: "));
+            assertTrue(transcript.contains("Game over! Final score: "));
+            assertTrue(transcript.endsWith("Thanks for playing!\n"));
+        }
+
+        assertEquals(1, leaderboard.getEntries().size());
+        assertEquals("Tester", leaderboard.getEntries().get(0).getName());
+    }
+
+    @Test
+    void testCloseDisconnectsOpenSessions() throws Exception {
+        NioGameServer server = new NioGameServer(0, 1, Leaderboard.inMemory(Leaderboard.UNBOUNDED));
+        server.start();
+        try (Socket socket = new Socket("localhost", server.getPort());
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            assertEquals("Welcome to Higher or Lower!", in.readLine());
+
+            server.close();
+
+            socket.setSoTimeout(5_000);
+            assertEquals("What is your name?", in.readLine());
+            assertNull(in.readLine(), "Closing the server should close the session.");
+        }
+    }
+
+    @Test
+    void testInvalidGuessIsRepeated() throws Exception {
+        Leaderboard leaderboard = new Leaderboard(tempFile);
+
+        try (NioGameServer server = new NioGameServer(0, 1, leaderboard);
+             Socket socket = connect(server);
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+
+            out.println("Tester");
+            out.println("maybe");
+
+            String line;
+            do {
+                line = in.readLine();
+            } while (line != null && !line.startsWith("Invalid input."));
+
+            assertEquals("Invalid input. Please type Higher or Lower.", line);
+            assertEquals("Higher or Lower? (H/L)", in.readLine());
+        }
+    }
+
+    private static Socket connect(NioGameServer server) throws Exception {
+        server.start();
+        return new Socket("localhost", server.getPort());
+    }
+
+    @Test
+    void testScoreInTranscriptMatchesLeaderboard() throws Exception {
+        Leaderboard leaderboard = new Leaderboard(tempFile);
+
+        String transcript;
+        try (NioGameServer server = new NioGameServer(0, 1, leaderboard)) {
+            server.start();
+            transcript = play(server.getPort(), "Scorer", "h", 1);
+        }
+
+        String marker = "Game over! Final score: ";
+        int start = transcript.indexOf(marker) + marker.length();
+        int score = Integer.parseInt(transcript.substring(start, transcript.indexOf('\n', start)));
+        assertEquals(score, leaderboard.getEntries().get(0).getScore());
+    }
+
+    @Test
+    void testClientThatNeverReadsIsDisconnected() throws Exception {
+        try (NioGameServer server = new NioGameServer(0, 1, Leaderboard.inMemory(Leaderboard.UNBOUNDED));
+             Socket socket = new Socket()) {
+            server.start();
+            socket.setReceiveBufferSize(4096);
+            socket.connect(new InetSocketAddress("localhost", server.getPort()));
+            OutputStream out = socket.getOutputStream();
+            out.write("Tester\n".getBytes(StandardCharsets.UTF_8));
+            byte[] invalid = "x\n".repeat(8192).getBytes(StandardCharsets.UTF_8);
+
+            // Every line gets a long complaint, which the client never reads
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> assertThrows(IOException.class, () -> {
+                for (int i = 0; i < 1_000; i++) {
+                    out.write(invalid);
+                }
+            }));
+        }
+    }
+
+    @Test
+    void testManyConcurrentSessionsOnFewThreads() throws Exception {
+        Leaderboard leaderboard = new Leaderboard(tempFile);
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+
+        try (NioGameServer server = new NioGameServer(0, 2, leaderboard)) {
+            server.start();
+            List<Future<String>> sessions = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String name = "Player" + i;
+                sessions.add(clients.submit(() -> play(server.getPort(), name, "h", 2)));
+            }
+            for (Future<String> session : sessions) {
+                assertTrue(session.get().endsWith("Thanks for playing!\n"));
+            }
+        } finally {
+            clients.shutdown();
+        }
+
+        assertEquals(64, leaderboard.getEntries().size());
+    }
+}
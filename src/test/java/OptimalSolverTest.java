@@ -0,0 +1,120 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptimalSolverTest {
+
+    /** Plain exhaustive search over every draw order, used as the reference. */
+    private static double bruteForce(int[] remaining, int current, int lives) {
+        int total = 0;
+        for (int count : remaining) {
+            total += count;
+        }
+        if (total == 0 || lives == 0) {
+            return 0;
+        }
+        double higher = 0;
+        double lower = 0;
+        for (int rank = 0; rank < remaining.length; rank++) {
+            int count = remaining[rank];
+            if (count == 0) {
+                continue;
+            }
+            remaining[rank]--;
+            double same = bruteForce(remaining, rank, lives);
+            double lost = bruteForce(remaining, rank, lives - 1);
+            remaining[rank]++;
+            if (rank == current) {
+                higher += count * same;
+                lower += count * same;
+            } else if (rank > current) {
+                higher += count * (1 + same);
+                lower += count * lost;
+            } else {
+                higher += count * lost;
+                lower += count * (1 + same);
+            }
+        }
+        return Math.max(higher, lower) / total;
+    }
+
+    @Test
+    void testSingleHigherCardScoresOne() {
+        int[] remaining = new int[13];
+        remaining[Rank.KING.ordinal()] = 1;
+
+        OptimalSolver solver = OptimalSolver.onDemand(500);
+
+        assertEquals(1.0, solver.expectedScore(remaining, Rank.FIVE.ordinal(), 1), 1e-12);
+        assertEquals(Guess.HIGHER, solver.bestGuess(remaining, Rank.FIVE.ordinal(), 1));
+    }
+
+    @Test
+    void testHandWorkedPosition() {
+        int[] remaining = new int[13];
+        remaining[Rank.ACE.ordinal()] = 1;
+        remaining[Rank.KING.ordinal()] = 1;
+
+        OptimalSolver solver = OptimalSolver.onDemand(500);
+
+        assertEquals(1.0, solver.expectedScore(remaining, Rank.SEVEN.ordinal(), 1), 1e-12);
+        assertEquals(1.5, solver.expectedScore(remaining, Rank.SEVEN.ordinal(), 2), 1e-12);
+    }
+
+    @Test
+    void testMatchesBruteForceOnSmallPositions() {
+        SplittableRandom random = new SplittableRandom(17);
+        OptimalSolver solver = OptimalSolver.onDemand(100_000);
+
+        for (int trial = 0; trial < 25; trial++) {
+            int[] remaining = new int[13];
+            for (int card = 0; card < 7; card++) {
+                remaining[random.nextInt(13)]++;
+            }
+            int current = random.nextInt(13);
+            int lives = 1 + random.nextInt(3);
+
+            assertEquals(bruteForce(remaining.clone(), current, lives),
+                    solver.expectedScore(remaining, current, lives), 1e-9);
+        }
+    }
+
+    @Test
+    void testMirroredPositionsHaveEqualValue() {
+        int[] remaining = {2, 0, 1, 0, 0, 3, 0, 0, 1, 0, 0, 0, 1};
+        int[] mirrored = new int[13];
+        for (int rank = 0; rank < 13; rank++) {
+            mirrored[12 - rank] = remaining[rank];
+        }
+        OptimalSolver solver = OptimalSolver.onDemand(100_000);
+
+        assertEquals(solver.expectedScore(remaining, 4, 2), solver.expectedScore(mirrored, 8, 2), 1e-12);
+    }
+
+    @Test
+    void testBoundedCacheGivesSameAnswer() {
+        int[] remaining = {1, 1, 1, 1, 1, 1, 1, 1, 0, 0, 0, 0, 0};
+
+        double unbounded = OptimalSolver.onDemand(1 << 20).expectedScore(remaining, 5, 3);
+        OptimalSolver bounded = OptimalSolver.onDemand(500);
+
+        assertEquals(unbounded, bounded.expectedScore(remaining, 5, 3), 1e-12);
+        assertTrue(bounded.getCachedStates() <= 500);
+    }
+
+    @Test
+    void testPrecomputedTableAgreesWithOnDemand() {
+        OptimalSolver table = OptimalSolver.precomputed(1, 3);
+        double expected = OptimalSolver.onDemand(1 << 20).expectedScore(1, 3);
+
+        assertEquals(expected, table.expectedScore(1, 3), 1e-12);
+        assertTrue(expected > 0);
+    }
+
+    @Test
+    void testOversizedTableIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> OptimalSolver.precomputed(4, 3));
+    }
+}
@@ -0,0 +1,121 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlayerStatsTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.ofEpochMilli(5_000), ZoneOffset.UTC);
+
+    @Test
+    void testAggregatesPerPlayer() {
+        PlayerStats stats = new PlayerStats(false, CLOCK);
+        stats.record("Alice", 10, 1_000);
+        stats.record("Alice", 4, 3_000);
+        stats.record("Bob", 7, 2_000);
+
+        PlayerStats.Profile alice = stats.getProfile("Alice").orElseThrow();
+
+        assertEquals(2, alice.getGamesPlayed());
+        assertEquals(10, alice.getBestScore());
+        assertEquals(14, alice.getTotalScore());
+        assertEquals(7.0, alice.getMeanScore());
+        assertEquals(3_000, alice.getLastPlayed());
+        assertTrue(alice.getHistory().isEmpty());
+        assertEquals(2, stats.getPlayerCount());
+    }
+
+    @Test
+    void testUnknownPlayerHasNoProfile() {
+        assertTrue(new PlayerStats().getProfile("Nobody").isEmpty());
+    }
+
+    @Test
+    void testBestScoreMayBeNegative() {
+        PlayerStats stats = new PlayerStats();
+        stats.record("Alice", -3);
+
+        assertEquals(-3, stats.getProfile("Alice").orElseThrow().getBestScore());
+    }
+
+    @Test
+    void testRecordReturnsCanonicalName() {
+        PlayerStats stats = new PlayerStats();
+        String first = stats.record(new String("Alice"), 1);
+        String second = stats.record(new String("Alice"), 2);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void testRecordUsesClockWhenNoTimeGiven() {
+        PlayerStats stats = new PlayerStats(false, CLOCK);
+        stats.record("Alice", 1);
+
+        assertEquals(5_000, stats.getProfile("Alice").orElseThrow().getLastPlayed());
+    }
+
+    @Test
+    void testHistoryIsKeptWhenEnabled() {
+        PlayerStats stats = new PlayerStats(true, CLOCK);
+        for (int i = 0; i < 10; i++) {
+            stats.record("Alice", i);
+        }
+
+        int[] history = stats.getProfile("Alice").orElseThrow().getHistory().orElseThrow();
+
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, history);
+    }
+
+    @Test
+    void testColumnsGrowWithPlayers() {
+        PlayerStats stats = new PlayerStats(true, CLOCK);
+        for (int i = 0; i < 100; i++) {
+            stats.record("P" + i, i);
+        }
+
+        assertEquals(100, stats.getPlayerCount());
+        assertEquals(99, stats.getProfile("P99").orElseThrow().getBestScore());
+        assertEquals(1, stats.getProfile("P0").orElseThrow().getHistory().orElseThrow().length);
+    }
+
+    @Test
+    void testColumnsGrowPastOnePage() {
+        PlayerStats stats = new PlayerStats();
+        for (int i = 0; i < 5_000; i++) {
+            stats.record("P" + i, i);
+        }
+
+        assertEquals(5_000, stats.getPlayerCount());
+        assertEquals(0, stats.getProfile("P0").orElseThrow().getBestScore());
+        assertEquals(4_999, stats.getProfile("P4999").orElseThrow().getBestScore());
+    }
+
+    @Test
+    void testConcurrentRecordsAreNotLost() throws Exception {
+        PlayerStats stats = new PlayerStats(true, CLOCK);
+        int threads = 8;
+        int games = 10_000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < games; i++) {
+                    stats.record("P" + (i % 2_000), 1, i);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(2_000, stats.getPlayerCount());
+        PlayerStats.Profile profile = stats.getProfile("P7").orElseThrow();
+        assertEquals(threads * games / 2_000, profile.getGamesPlayed());
+        assertEquals(threads * games / 2_000, profile.getTotalScore());
+        assertEquals(threads * games / 2_000, profile.getHistory().orElseThrow().length);
+    }
+}
@@ -0,0 +1,58 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetentionPolicyTest {
+
+    private static final List<LeaderboardEntry> ENTRIES = List.of(
+            new LeaderboardEntry("Alice", 30),
+            new LeaderboardEntry("Bob", 25),
+            new LeaderboardEntry("Alice", 20),
+            new LeaderboardEntry("Alice", 10),
+            new LeaderboardEntry("Bob", 5),
+            new LeaderboardEntry("Carol", 0),
+            new LeaderboardEntry("Alice", 0));
+
+    @Test
+    void testKeepAllKeepsEverything() {
+        assertEquals(ENTRIES, RetentionPolicy.keepAll().apply(ENTRIES));
+    }
+
+    @Test
+    void testBestPerPlayerKeepsEachPlayersTopEntries() {
+        List<LeaderboardEntry> kept = RetentionPolicy.keepAll().withBestPerPlayer(2).apply(ENTRIES);
+
+        assertEquals(List.of(ENTRIES.get(0), ENTRIES.get(1), ENTRIES.get(2), ENTRIES.get(4), ENTRIES.get(5)), kept);
+    }
+
+    @Test
+    void testZeroScoresAreDropped() {
+        List<LeaderboardEntry> kept = RetentionPolicy.keepAll().withoutZeroScores().apply(ENTRIES);
+
+        assertEquals(ENTRIES.subList(0, 5), kept);
+    }
+
+    @Test
+    void testMaxEntriesKeepsTheBest() {
+        List<LeaderboardEntry> kept = RetentionPolicy.keepAll().withMaxEntries(3).apply(ENTRIES);
+
+        assertEquals(ENTRIES.subList(0, 3), kept);
+    }
+
+    @Test
+    void testRulesCombine() {
+        RetentionPolicy policy = RetentionPolicy.keepAll().withBestPerPlayer(1).withoutZeroScores().withMaxEntries(5);
+
+        assertEquals(List.of(ENTRIES.get(0), ENTRIES.get(1)), policy.apply(ENTRIES));
+    }
+
+    @Test
+    void testInvalidLimitsAreRejected() {
+        IllegalArgumentException perPlayer = assertThrows(IllegalArgumentException.class,
+                () -> RetentionPolicy.keepAll().withBestPerPlayer(0));
+        assertTrue(perPlayer.getMessage().contains("at least 1"));
+        assertThrows(IllegalArgumentException.class, () -> RetentionPolicy.keepAll().withMaxEntries(-1));
+    }
+}
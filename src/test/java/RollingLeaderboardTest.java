@@ -0,0 +1,127 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollingLeaderboardTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    /** A clock the test can move forward. */
+    private static class MutableClock extends Clock {
+        long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+
+    private static List<String> names(List<LeaderboardEntry> entries) {
+        return entries.stream().map(LeaderboardEntry::getName).toList();
+    }
+
+    @Test
+    void testKeepsBestWithinWindow() {
+        MutableClock clock = new MutableClock(100 * HOUR);
+        RollingLeaderboard daily = RollingLeaderboard.daily(2, clock);
+
+        daily.add(new LeaderboardEntry("A", 5, clock.millis - 3 * HOUR));
+        daily.add(new LeaderboardEntry("B", 9, clock.millis - 2 * HOUR));
+        daily.add(new LeaderboardEntry("C", 7, clock.millis));
+        daily.add(new LeaderboardEntry("D", 7, clock.millis - HOUR));
+
+        assertEquals(List.of("B", "D"), names(daily.top()), "Equal scores should rank the earlier game first.");
+    }
+
+    @Test
+    void testEntriesExpireAsWindowRolls() {
+        MutableClock clock = new MutableClock(100 * HOUR);
+        RollingLeaderboard daily = RollingLeaderboard.daily(10, clock);
+        daily.add(new LeaderboardEntry("Old", 50, clock.millis - 23 * HOUR));
+        daily.add(new LeaderboardEntry("New", 10, clock.millis));
+
+        assertEquals(List.of("Old", "New"), names(daily.top()));
+
+        clock.millis += HOUR;
+        assertEquals(List.of("New"), names(daily.top()));
+    }
+
+    @Test
+    void testExpiredSlotIsReplacedWhenReused() {
+        MutableClock clock = new MutableClock(100 * HOUR);
+        RollingLeaderboard daily = RollingLeaderboard.daily(10, clock);
+        daily.add(new LeaderboardEntry("Yesterday", 50, clock.millis));
+
+        clock.millis += 24 * HOUR;
+        daily.add(new LeaderboardEntry("Today", 1, clock.millis));
+
+        assertEquals(List.of("Today"), names(daily.top()));
+    }
+
+    @Test
+    void testIgnoresEntriesOlderThanWindowAndClampsFutureOnes() {
+        MutableClock clock = new MutableClock(100 * HOUR);
+        RollingLeaderboard daily = RollingLeaderboard.daily(10, clock);
+        daily.add(new LeaderboardEntry("Ancient", 99, clock.millis - 24 * HOUR));
+        daily.add(new LeaderboardEntry("Future", 3, clock.millis + 5 * HOUR));
+
+        assertEquals(List.of("Future"), names(daily.top()));
+    }
+
+    @Test
+    void testTopIsCachedUntilSomethingChanges() {
+        MutableClock clock = new MutableClock(100 * HOUR);
+        RollingLeaderboard weekly = RollingLeaderboard.weekly(3, clock);
+        weekly.add(new LeaderboardEntry("A", 1, clock.millis));
+
+        List<LeaderboardEntry> first = weekly.top();
+        assertSame(first, weekly.top());
+
+        weekly.add(new LeaderboardEntry("B", 2, clock.millis));
+        assertEquals(List.of("B", "A"), names(weekly.top()));
+        assertEquals(Duration.ofDays(7), weekly.getWindow());
+    }
+
+    @Test
+    void testLeaderboardFeedsWindows() {
+        MutableClock clock = new MutableClock(100 * HOUR);
+        Leaderboard lb = Leaderboard.inMemory(Leaderboard.UNBOUNDED);
+        lb.addEntry("Before", 4, clock.millis - HOUR);
+        RollingLeaderboard daily = lb.addWindow(RollingLeaderboard.daily(5, clock));
+
+        lb.addEntry("After", 8, clock.millis);
+        lb.addEntry("LastWeek", 20, clock.millis - 7 * 24 * HOUR);
+
+        assertEquals(List.of("After", "Before"), names(daily.top()));
+        assertEquals(3, lb.getEntries().size());
+    }
+
+    @Test
+    void testRejectsInvalidSizes() {
+        Clock clock = Clock.systemUTC();
+        assertThrows(IllegalArgumentException.class, () -> new RollingLeaderboard(Duration.ZERO, 1, 1, clock));
+        assertThrows(IllegalArgumentException.class, () -> new RollingLeaderboard(Duration.ofHours(1), 0, 1, clock));
+        assertThrows(IllegalArgumentException.class, () -> new RollingLeaderboard(Duration.ofHours(1), 1, 0, clock));
+    }
+}
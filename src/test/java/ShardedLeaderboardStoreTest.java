@@ -0,0 +1,247 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedLeaderboardStoreTest {
+
+    private static final int SHARDS = 4;
+
+    private final File base = new File("test_sharded_leaderboard.txt");
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        for (int i = 0; i < SHARDS; i++) {
+            Files.deleteIfExists(Path.of(base.getPath() + "." + i));
+            Files.deleteIfExists(Path.of(base.getPath() + "." + i + ".lock"));
+            Files.deleteIfExists(Path.of(base.getPath() + "." + i + ".tmp"));
+        }
+    }
+
+    /** Appends {@code count} entries to a sharded store from a separate process. */
+    public static class Writer {
+        public static void main(String[] args) {
+            ShardedLeaderboardStore store = new ShardedLeaderboardStore(new File(args[0]), SHARDS, 50);
+            int count = Integer.parseInt(args[2]);
+            List<LeaderboardEntry> mine = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                LeaderboardEntry entry = new LeaderboardEntry(args[1] + i, i);
+                store.append(entry);
+                mine.add(entry);
+                if (store.needsCompaction()) {
+                    store.compact(mine);
+                }
+            }
+        }
+    }
+
+    private ShardedLeaderboardStore store() {
+        return new ShardedLeaderboardStore(base, SHARDS, 1000);
+    }
+
+    @Test
+    void testAppendAllWritesEveryShardInOrder() throws Exception {
+        ShardedLeaderboardStore store = store();
+        List<LeaderboardEntry> batch = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            batch.add(new LeaderboardEntry("P" + i, i));
+        }
+
+        store.appendAll(batch);
+        store.compact(batch.subList(20, 40));
+
+        List<LeaderboardEntry> loaded = store.load();
+        assertEquals(20, loaded.size());
+        assertEquals(39, loaded.get(0).getScore());
+        for (int shard = 0; shard < SHARDS; shard++) {
+            int expected = 0;
+            for (LeaderboardEntry entry : batch.subList(20, 40)) {
+                if (store.shardOf(entry.getName()) == shard) {
+                    expected++;
+                }
+            }
+            // One header line, then the kept entries of that shard
+            assertEquals(expected + 1, Files.readAllLines(Path.of(base.getPath() + "." + shard)).size());
+        }
+    }
+
+    @Test
+    void testLoadMergesShardsBestFirst() {
+        ShardedLeaderboardStore store = store();
+        for (int i = 0; i < 40; i++) {
+            store.append(new LeaderboardEntry("P" + i, (i * 7) % 40));
+        }
+
+        List<LeaderboardEntry> loaded = store.load();
+
+        assertEquals(40, loaded.size());
+        for (int i = 0; i < 40; i++) {
+            assertEquals(39 - i, loaded.get(i).getScore());
+        }
+    }
+
+    @Test
+    void testEntriesGoToTheirPlayersShard() throws Exception {
+        ShardedLeaderboardStore store = store();
+        store.append(new LeaderboardEntry("Alice", 10));
+
+        Path shard = Path.of(base.getPath() + "." + store.shardOf("Alice"));
+        assertEquals(List.of("Alice,10"), Files.readAllLines(shard));
+    }
+
+    @Test
+    void testMergeKeepsRunOrderForTies() {
+        List<List<LeaderboardEntry>> runs = List.of(
+                List.of(new LeaderboardEntry("A", 5), new LeaderboardEntry("B", 1)),
+                List.of(),
+                List.of(new LeaderboardEntry("C", 5), new LeaderboardEntry("D", 3)));
+
+        List<LeaderboardEntry> merged = ShardedLeaderboardStore.merge(runs);
+
+        assertEquals(List.of("A", "C", "D", "B"), merged.stream().map(LeaderboardEntry::getName).toList());
+    }
+
+    @Test
+    void testCompactionKeepsOnlyTheGivenEntriesItHasSeen() {
+        ShardedLeaderboardStore store = store();
+        for (int i = 0; i < 20; i++) {
+            store.append(new LeaderboardEntry("P" + i, i));
+        }
+
+        store.compact(store.load().subList(0, 5));
+
+        List<LeaderboardEntry> loaded = store().load();
+        assertEquals(5, loaded.size());
+        assertEquals(19, loaded.get(0).getScore());
+        assertEquals(15, loaded.get(4).getScore());
+    }
+
+    @Test
+    void testCompactionKeepsOtherWritersEntries() {
+        ShardedLeaderboardStore mine = store();
+        ShardedLeaderboardStore theirs = store();
+        mine.append(new LeaderboardEntry("Alice", 1));
+        mine.load();
+        theirs.append(new LeaderboardEntry("Bob", 2));
+        mine.append(new LeaderboardEntry("Alice", 3));
+
+        // Keep nothing this store has seen or written; Bob's entry was never seen
+        mine.compact(List.of());
+
+        List<LeaderboardEntry> loaded = theirs.load();
+        assertEquals(1, loaded.size());
+        assertEquals("Bob", loaded.get(0).getName());
+    }
+
+    @Test
+    void testShardRewrittenByAnotherWriterIsStillCompacted() {
+        ShardedLeaderboardStore mine = store();
+        ShardedLeaderboardStore theirs = store();
+        mine.append(new LeaderboardEntry("Alice", 1));
+        mine.load();
+
+        theirs.compact(theirs.load());
+        mine.compact(List.of());
+
+        assertEquals(0, store().load().size(), "An entry this store has seen and dropped should leave the file.");
+    }
+
+    @Test
+    void testOtherWritersEntriesSurviveRepeatedCompaction() {
+        ShardedLeaderboardStore mine = store();
+        ShardedLeaderboardStore theirs = store();
+        theirs.append(new LeaderboardEntry("Bob", 2));
+        mine.append(new LeaderboardEntry("Bob", 1));
+
+        for (int i = 0; i < 3; i++) {
+            mine.compact(List.of());
+        }
+
+        List<LeaderboardEntry> loaded = store().load();
+        assertEquals(1, loaded.size());
+        assertEquals(2, loaded.get(0).getScore());
+    }
+
+    @Test
+    void testCompactionAppliesThePolicyToOtherWritersEntries() throws Exception {
+        RetentionPolicy policy = RetentionPolicy.keepAll().withBestPerPlayer(2);
+        ShardedLeaderboardStore mine = new ShardedLeaderboardStore(base, SHARDS, 1000, policy);
+        ShardedLeaderboardStore theirs = store();
+        for (int i = 0; i < 10; i++) {
+            theirs.append(new LeaderboardEntry("Bob", i));
+        }
+        LeaderboardEntry alice = new LeaderboardEntry("Alice", 5);
+        mine.append(alice);
+
+        mine.compact(List.of(alice));
+
+        List<LeaderboardEntry> loaded = store().load();
+        assertEquals(List.of("Bob,9", "Bob,8", "Alice,5"),
+                loaded.stream().map(e -> e.getName() + "," + e.getScore()).toList());
+        Path shard = Path.of(base.getPath() + "." + store().shardOf("Bob"));
+        assertTrue(Files.readAllLines(shard).size() <= 4, "The shard should only hold what the policy keeps.");
+    }
+
+    @Test
+    void testConcurrentWritersLoseNothing() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            ShardedLeaderboardStore store = new ShardedLeaderboardStore(base, SHARDS, 25);
+            String prefix = "T" + t + "-";
+            threads.add(new Thread(() -> {
+                List<LeaderboardEntry> mine = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    LeaderboardEntry entry = new LeaderboardEntry(prefix + i, i);
+                    store.append(entry);
+                    mine.add(entry);
+                    if (store.needsCompaction()) {
+                        store.compact(mine);
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertUniqueEntries(400);
+    }
+
+    @Test
+    void testConcurrentProcessesLoseNothing() throws Exception {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> processes = new ArrayList<>();
+        for (int p = 0; p < 3; p++) {
+            processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    "ShardedLeaderboardStoreTest$Writer", base.getPath(), "W" + p + "-", "150")
+                    .inheritIO()
+                    .start());
+        }
+        for (Process process : processes) {
+            assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+            assertEquals(0, process.exitValue());
+        }
+
+        assertUniqueEntries(450);
+    }
+
+    private void assertUniqueEntries(int expected) {
+        List<LeaderboardEntry> loaded = store().load();
+        Set<String> names = new HashSet<>();
+        for (LeaderboardEntry entry : loaded) {
+            names.add(entry.getName());
+        }
+        assertEquals(expected, loaded.size());
+        assertEquals(expected, names.size());
+    }
+}
@@ -0,0 +1,85 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShoeTest {
+
+    @Test
+    void testShoeHoldsAllDecks() {
+        Shoe shoe = new Shoe(6);
+        assertEquals(312, shoe.getSize(), "A six-deck shoe should hold 312 cards.");
+    }
+
+    @Test
+    void testShoeDealsEachCardOncePerDeck() {
+        Shoe shoe = new Shoe(8, new SplittableRandom(7));
+        int[] counts = new int[Card.DECK_SIZE];
+
+        while (!shoe.isEmpty()) {
+            counts[shoe.drawCardId()]++;
+        }
+
+        for (int count : counts) {
+            assertEquals(8, count, "Every card should appear once per deck.");
+        }
+    }
+
+    @Test
+    void testDrawingFromEmptyShoeThrowsException() {
+        Shoe shoe = new Shoe(1);
+        while (!shoe.isEmpty()) {
+            shoe.drawCard();
+        }
+        assertThrows(IndexOutOfBoundsException.class, shoe::drawCard);
+    }
+
+    @Test
+    void testDefaultShoeCanBeDrawnOnAnotherThread() throws InterruptedException {
+        Shoe shoe = new Shoe(1);
+        int[] counts = new int[Card.DECK_SIZE];
+        Thread dealer = new Thread(() -> {
+            while (!shoe.isEmpty()) {
+                counts[shoe.drawCardId()]++;
+            }
+        });
+
+        dealer.start();
+        dealer.join();
+
+        for (int count : counts) {
+            assertEquals(1, count, "Every card should be dealt once.");
+        }
+    }
+
+    @Test
+    void testSameSeedGivesSameOrder() {
+        Shoe first = new Shoe(2, new SplittableRandom(99));
+        Shoe second = new Shoe(2, new SplittableRandom(99));
+
+        while (!first.isEmpty()) {
+            assertEquals(first.drawCardId(), second.drawCardId());
+        }
+    }
+
+    @Test
+    void testCutCardReshufflesForEndlessPlay() {
+        Shoe shoe = new Shoe(1, 40, new SplittableRandom(3));
+
+        for (int i = 0; i < 40; i++) {
+            shoe.drawCard();
+        }
+        assertTrue(shoe.isCutCardReached());
+        assertFalse(shoe.isEmpty(), "A shoe with a cut card should never be empty.");
+
+        shoe.drawCard();
+        assertEquals(51, shoe.getSize(), "Drawing past the cut card should reshuffle first.");
+    }
+
+    @Test
+    void testInvalidConfigurationIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new Shoe(0));
+        assertThrows(IllegalArgumentException.class, () -> new Shoe(1, 53, new SplittableRandom()));
+    }
+}
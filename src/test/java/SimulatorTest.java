@@ -0,0 +1,62 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulatorTest {
+
+    @Test
+    void testEveryGameIsRecorded() {
+        SimulationResult result = new Simulator(BotStrategy.MIDPOINT, 3, 1, 1L).run(120_000);
+
+        long total = 0;
+        for (int score = 0; score < Card.DECK_SIZE; score++) {
+            total += result.getScoreCount(score);
+        }
+        assertEquals(120_000, result.getGames());
+        assertEquals(120_000, total);
+    }
+
+    @Test
+    void testSameSeedGivesSameResults() {
+        SimulationResult first = new Simulator(BotStrategy.MIDPOINT, 3, 1, 42L).run(100_000);
+        SimulationResult second = new Simulator(BotStrategy.MIDPOINT, 3, 1, 42L).run(100_000);
+
+        assertEquals(first.getMeanScore(), second.getMeanScore());
+        for (int score = 0; score < Card.DECK_SIZE; score++) {
+            assertEquals(first.getScoreCount(score), second.getScoreCount(score));
+        }
+    }
+
+    @Test
+    void testSurvivalCurveStartsFullAndNeverRises() {
+        double[] survival = new Simulator(BotStrategy.ALWAYS_HIGHER, 3, 1, 7L).run(10_000).getSurvivalCurve();
+
+        assertEquals(1.0, survival[1], "Every game should play at least one round.");
+        for (int round = 2; round < survival.length; round++) {
+            assertTrue(survival[round] <= survival[round - 1]);
+        }
+    }
+
+    @Test
+    void testMidpointBeatsAlwaysHigher() {
+        double midpoint = new Simulator(BotStrategy.MIDPOINT, 3, 1, 3L).run(50_000).getMeanScore();
+        double alwaysHigher = new Simulator(BotStrategy.ALWAYS_HIGHER, 3, 1, 3L).run(50_000).getMeanScore();
+
+        assertTrue(midpoint > alwaysHigher);
+    }
+
+    @Test
+    void testCountingBeatsMidpoint() {
+        double counting = new Simulator(BotStrategy.COUNTING, 3, 1, 5L).run(50_000).getMeanScore();
+        double midpoint = new Simulator(BotStrategy.MIDPOINT, 3, 1, 5L).run(50_000).getMeanScore();
+
+        assertTrue(counting > midpoint);
+    }
+
+    @Test
+    void testShoeGamesLastLonger() {
+        SimulationResult result = new Simulator(BotStrategy.MIDPOINT, 100, 2, 9L).run(1_000);
+
+        assertTrue(result.getMeanScore() > Card.DECK_SIZE, "Two decks should allow more than 52 points.");
+    }
+}
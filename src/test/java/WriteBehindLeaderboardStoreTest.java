@@ -0,0 +1,212 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindLeaderboardStoreTest {
+
+    private final File snapshot = new File("test_write_behind.txt");
+    private final File log = new File("test_write_behind.txt.log");
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        Files.deleteIfExists(snapshot.toPath());
+        Files.deleteIfExists(log.toPath());
+    }
+
+    /** A store that records each batch it is given, optionally waiting for a latch first. */
+    private static class RecordingStore implements LeaderboardStore {
+        final List<List<LeaderboardEntry>> batches = new ArrayList<>();
+        final CountDownLatch release;
+
+        RecordingStore(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public List<LeaderboardEntry> load() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void append(LeaderboardEntry entry) {
+            appendAll(List.of(entry));
+        }
+
+        @Override
+        public synchronized void appendAll(List<LeaderboardEntry> entries) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            if (!entries.isEmpty()) {
+                batches.add(List.copyOf(entries));
+            }
+        }
+
+        @Override
+        public boolean needsCompaction() {
+            return false;
+        }
+
+        @Override
+        public void compact(List<LeaderboardEntry> entries) {
+        }
+    }
+
+    @Test
+    void testEntriesAreWrittenByClose() {
+        WriteBehindLeaderboardStore store = new WriteBehindLeaderboardStore(new AppendOnlyLeaderboardStore(snapshot));
+        Leaderboard lb = new Leaderboard(store);
+        lb.addEntry("Alice", 10);
+        lb.addEntry("Bob", 20);
+        store.close();
+
+        Leaderboard loaded = new Leaderboard(snapshot);
+
+        assertEquals(2, loaded.getEntries().size());
+        assertEquals("Bob", loaded.getEntries().get(0).getName());
+    }
+
+    @Test
+    void testQueuedEntriesAreGroupedIntoOneWrite() {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingStore delegate = new RecordingStore(release);
+        WriteBehindLeaderboardStore store = new WriteBehindLeaderboardStore(delegate, 100, 100, Duration.ZERO);
+
+        // The first entry holds up the flusher while the rest queue behind it
+        for (int i = 0; i < 50; i++) {
+            store.append(new LeaderboardEntry("P" + i, i));
+        }
+        release.countDown();
+        store.close();
+
+        List<LeaderboardEntry> written = new ArrayList<>();
+        delegate.batches.forEach(written::addAll);
+        assertEquals(50, written.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals("P" + i, written.get(i).getName(), "Entries should be written in order.");
+        }
+        assertTrue(delegate.batches.size() <= 3, "Queued entries should be written in a few batches.");
+    }
+
+    @Test
+    void testFullQueueBlocksAppend() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        WriteBehindLeaderboardStore store = new WriteBehindLeaderboardStore(new RecordingStore(release), 2, 1,
+                Duration.ZERO);
+        store.append(new LeaderboardEntry("A", 1));
+        store.append(new LeaderboardEntry("B", 2));
+        store.append(new LeaderboardEntry("C", 3));
+
+        Thread producer = new Thread(() -> store.append(new LeaderboardEntry("D", 4)));
+        producer.start();
+        producer.join(200);
+        assertTrue(producer.isAlive(), "Appending to a full queue should block.");
+
+        release.countDown();
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(producer.isAlive());
+        store.close();
+    }
+
+    @Test
+    void testCompactionRunsInOrderWithAppends() throws Exception {
+        WriteBehindLeaderboardStore store = new WriteBehindLeaderboardStore(
+                new AppendOnlyLeaderboardStore(snapshot, 5), 16, 4, Duration.ofMillis(1));
+        Leaderboard lb = new Leaderboard(store);
+        for (int i = 0; i < 23; i++) {
+            lb.addEntry("P" + i, i);
+            // Let the flusher see the log grow, so the next entry triggers a compaction
+            lb.flush();
+        }
+        store.close();
+
+        Leaderboard loaded = new Leaderboard(snapshot);
+
+        assertEquals(23, loaded.getEntries().size());
+        assertEquals(22, loaded.getEntries().get(0).getScore());
+        assertTrue(Files.exists(snapshot.toPath()), "A compaction should have written a snapshot.");
+    }
+
+    @Test
+    void testRejectedCompactionCanBeRequestedAgain() {
+        WriteBehindLeaderboardStore store = new WriteBehindLeaderboardStore(new RecordingStore(new CountDownLatch(0)) {
+            @Override
+            public boolean needsCompaction() {
+                return true;
+            }
+        });
+        store.load();
+        store.close();
+
+        assertThrows(IllegalStateException.class, () -> store.compact(List.of()));
+
+        assertTrue(store.needsCompaction(), "A compaction that was never queued should still be due.");
+    }
+
+    @Test
+    void testAppendAfterCloseThrows() {
+        WriteBehindLeaderboardStore store = new WriteBehindLeaderboardStore(new RecordingStore(new CountDownLatch(0)));
+        store.close();
+
+        assertThrows(IllegalStateException.class, () -> store.append(new LeaderboardEntry("A", 1)));
+    }
+
+    @Test
+    void testEveryAcceptedAppendIsWrittenWhenClosedConcurrently() throws Exception {
+        RecordingStore delegate = new RecordingStore(new CountDownLatch(0));
+        WriteBehindLeaderboardStore store = new WriteBehindLeaderboardStore(delegate, 4, 2, Duration.ZERO);
+        int producers = 4;
+        int[] accepted = new int[producers];
+        Thread[] threads = new Thread[producers];
+        for (int t = 0; t < producers; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 100_000; i++) {
+                        store.append(new LeaderboardEntry("P" + id, i));
+                        accepted[id]++;
+                    }
+                } catch (IllegalStateException e) {
+                    // Closed
+                }
+            });
+            threads[t].start();
+        }
+        Thread.sleep(20);
+        store.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int written = delegate.batches.stream().mapToInt(List::size).sum();
+        int total = 0;
+        for (int count : accepted) {
+            total += count;
+        }
+        assertEquals(total, written, "Every append that did not throw should be written.");
+    }
+
+    @Test
+    void testFlushRacingCloseAlwaysReturns() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            WriteBehindLeaderboardStore store = new WriteBehindLeaderboardStore(new RecordingStore(new CountDownLatch(0)));
+            store.append(new LeaderboardEntry("A", 1));
+            Thread flusher = new Thread(store::flush);
+            flusher.start();
+            store.close();
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+            assertFalse(flusher.isAlive(), "A flush racing close should not hang.");
+        }
+    }
+}